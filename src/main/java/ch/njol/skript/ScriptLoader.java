@@ -27,11 +27,14 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -39,6 +42,9 @@ import java.util.Set;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Matcher;
 
@@ -78,6 +84,8 @@ import ch.njol.skript.lang.While;
 import ch.njol.skript.lang.function.Function;
 import ch.njol.skript.lang.function.FunctionEvent;
 import ch.njol.skript.lang.function.Functions;
+import ch.njol.skript.lang.parser.ParseCache;
+import ch.njol.skript.lang.parser.ParserInstance;
 import ch.njol.skript.localization.Language;
 import ch.njol.skript.localization.Message;
 import ch.njol.skript.localization.PluralizingArgsMessage;
@@ -110,25 +118,63 @@ final public class ScriptLoader {
 			m_no_scripts = new Message("skript.no scripts");
 	private final static PluralizingArgsMessage m_scripts_loaded = new PluralizingArgsMessage("skript.scripts loaded");
 	
+	/*
+	 * Parser state is kept in the ParserInstance of current thread, so that
+	 * scripts can be parsed in parallel. Methods below are shortcuts for it.
+	 */
+	
+	/**
+	 * Script that is being parsed. Only used when scripts are not parsed in
+	 * parallel, see {@link ParserInstance#isParallel()}.
+	 * @deprecated Use {@link #getCurrentScript()} and
+	 * {@link #setCurrentScript(Config)}.
+	 */
+	@Deprecated
 	@Nullable
 	public static Config currentScript = null;
-
+	
 	/**
-	 * use {@link #setCurrentEvent(String, Class...)}
+	 * Only used when scripts are not parsed in parallel, see
+	 * {@link ParserInstance#isParallel()}.
+	 * @deprecated Use {@link #getCurrentSections()}.
 	 */
-	@Nullable
-	private static String currentEventName = null;
+	@Deprecated
+	public static List<TriggerSection> currentSections = new ArrayList<>();
 	
-	@Nullable
-	public static String getCurrentEventName() {
-		return currentEventName;
-	}
+	/**
+	 * Only used when scripts are not parsed in parallel, see
+	 * {@link ParserInstance#isParallel()}.
+	 * @deprecated Use {@link #getCurrentLoops()}.
+	 */
+	@Deprecated
+	public static List<Loop> currentLoops = new ArrayList<>();
+	
+	/**
+	 * Only used when scripts are not parsed in parallel, see
+	 * {@link ParserInstance#isParallel()}.
+	 * @deprecated Use {@link #getHasDelayBefore()} and
+	 * {@link #setHasDelayBefore(Kleenean)}.
+	 */
+	@Deprecated
+	public static Kleenean hasDelayBefore = Kleenean.FALSE;
 	
 	/**
-	 * use {@link #setCurrentEvent(String, Class...)}
+	 * Gets the script that is being parsed by current thread.
+	 * @return Current script, or null if not parsing a script.
 	 */
 	@Nullable
-	private static Class<? extends Event>[] currentEvents = null;
+	public static Config getCurrentScript() {
+		return ParserInstance.get().getCurrentScript();
+	}
+	
+	public static void setCurrentScript(final @Nullable Config script) {
+		ParserInstance.get().setCurrentScript(script);
+	}
+	
+	@Nullable
+	public static String getCurrentEventName() {
+		return ParserInstance.get().getCurrentEventName();
+	}
 	
 	/**
 	 * Call {@link #deleteCurrentEvent()} after parsing
@@ -138,28 +184,38 @@ final public class ScriptLoader {
 	 */
 	@SafeVarargs
 	public static void setCurrentEvent(final String name, final @Nullable Class<? extends Event>... events) {
-		currentEventName = name;
-		currentEvents = events;
-		hasDelayBefore = Kleenean.FALSE;
+		final ParserInstance pi = ParserInstance.get();
+		pi.setCurrentEvent(name, events);
+		pi.setHasDelayBefore(Kleenean.FALSE);
 	}
 	
 	public static void deleteCurrentEvent() {
-		currentEventName = null;
-		currentEvents = null;
-		hasDelayBefore = Kleenean.FALSE;
+		final ParserInstance pi = ParserInstance.get();
+		pi.setCurrentEvent(null, null);
+		pi.setHasDelayBefore(Kleenean.FALSE);
 	}
 	
-	public static List<TriggerSection> currentSections = new ArrayList<>();
-	public static List<Loop> currentLoops = new ArrayList<>();
-	final static HashMap<String, String> currentOptions = new HashMap<>();
+	public static List<TriggerSection> getCurrentSections() {
+		return ParserInstance.get().getCurrentSections();
+	}
+	
+	public static List<Loop> getCurrentLoops() {
+		return ParserInstance.get().getCurrentLoops();
+	}
+	
+	public static Kleenean getHasDelayBefore() {
+		return ParserInstance.get().getHasDelayBefore();
+	}
+	
+	public static void setHasDelayBefore(final Kleenean hasDelayBefore) {
+		ParserInstance.get().setHasDelayBefore(hasDelayBefore);
+	}
 	
 	/**
 	 * must be synchronized
 	 */
 	private final static ScriptInfo loadedScripts = new ScriptInfo();
 	
-	public static Kleenean hasDelayBefore = Kleenean.FALSE;
-	
 	public static class ScriptInfo {
 		public int files, triggers, commands, functions;
 		
@@ -227,8 +283,6 @@ final public class ScriptLoader {
 //		public final List<ScriptCommand> commands = new ArrayList<ScriptCommand>();
 //	}
 	
-	private static String indentation = "";
-	
 	// Load scripts in separate (one) thread
 	static final BlockingQueue<Runnable> loadQueue = new ArrayBlockingQueue<>(20, true);
 	static final Thread loaderThread;
@@ -300,6 +354,26 @@ final public class ScriptLoader {
 		loaderThread.start();
 	}
 	
+	/**
+	 * Threads that parse scripts if parallel loading is enabled. Created when
+	 * first needed.
+	 */
+	@Nullable
+	private static ForkJoinPool parserPool;
+	
+	private static synchronized ForkJoinPool getParserPool() {
+		ForkJoinPool pool = parserPool;
+		if (pool == null) {
+			pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), p -> {
+				final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+				thread.setName("Skript script parser " + thread.getPoolIndex());
+				return thread;
+			}, null, false);
+			parserPool = pool;
+		}
+		return pool;
+	}
+	
 	private static class AsyncLoaderThread extends Thread {
 		
 		public AsyncLoaderThread() { }
@@ -397,9 +471,14 @@ final public class ScriptLoader {
 			try {
 				Bukkit.getPluginManager().callEvent(new PreScriptLoadEvent(configs));
 				
-				for (final Config cfg : configs) {
+				// Scripts don't depend on each other when parsing, only function signatures are shared
+				// They are loaded before this, so scripts may be parsed in parallel and then enabled in order
+				final List<ParsedScript> parsed = SkriptConfig.parallelLoaderEnabled.value() && configs.size() > 1 ? parseScripts(configs) : null;
+				
+				for (int index = 0; index < configs.size(); index++) {
+					final Config cfg = configs.get(index);
 					assert cfg != null : configs.toString();
-					ScriptInfo info = loadScript(cfg);
+					ScriptInfo info = parsed != null ? enableScript(parsed.get(index)) : loadScript(cfg);
 					
 					// Check if commands have been changed and a re-send is needed
 					if (!info.commandNames.equals(commandNames.get(cfg.getFileName()))) {
@@ -488,12 +567,103 @@ final public class ScriptLoader {
 			this.event = event;
 			this.node = node;
 			this.items = items;
+			this.fingerprint = SkriptConfig.incrementalReloadEnabled.value() ? getFingerprint(node) : ""; // Only needed to reload changed triggers
+			this.reused = null;
+		}
+		
+		/**
+		 * Creates data for a trigger that is unchanged since it was loaded.
+		 * @param reused The loaded trigger.
+		 * @param node Section of the trigger in new version of the script.
+		 */
+		public ParsedEventData(LoadedTrigger reused, SectionNode node) {
+			this.info = reused.info;
+			this.event = reused.trigger.getName();
+			this.node = node;
+			this.items = Collections.emptyList();
+			this.fingerprint = reused.fingerprint;
+			this.reused = reused;
 		}
 		
 		public final NonNullPair<SkriptEventInfo<?>, SkriptEvent> info;
 		public final String event;
 		public final SectionNode node;
 		public final List<TriggerItem> items;
+		public final String fingerprint;
+		
+		/**
+		 * Trigger to use instead of parsing this one again.
+		 */
+		@Nullable
+		public final LoadedTrigger reused;
+	}
+	
+	/**
+	 * A trigger that has been enabled, with source it was parsed from.
+	 */
+	private static class LoadedTrigger {
+		
+		public LoadedTrigger(String fingerprint, NonNullPair<SkriptEventInfo<?>, SkriptEvent> info, Trigger trigger) {
+			this.fingerprint = fingerprint;
+			this.info = info;
+			this.trigger = trigger;
+		}
+		
+		public final String fingerprint;
+		public final NonNullPair<SkriptEventInfo<?>, SkriptEvent> info;
+		public final Trigger trigger;
+	}
+	
+	/**
+	 * Triggers of an enabled script, used to reload only triggers which have
+	 * changed.
+	 */
+	private static class LoadedScript {
+		
+		public LoadedScript(String header, List<LoadedTrigger> triggers, ScriptInfo info) {
+			this.header = header;
+			this.triggers = triggers;
+			this.info = info;
+		}
+		
+		/**
+		 * Fingerprint of everything but triggers, see {@link ScriptLoader#getHeaderFingerprint(Config)}.
+		 */
+		public final String header;
+		public final List<LoadedTrigger> triggers;
+		public final ScriptInfo info;
+	}
+	
+	/**
+	 * Enabled scripts by their files.
+	 */
+	@SuppressWarnings("null")
+	private final static Map<File, LoadedScript> loadedScriptTriggers = Collections.synchronizedMap(new HashMap<>());
+	
+	/**
+	 * Represents a script which has been parsed, but not yet enabled.
+	 */
+	private static class ParsedScript {
+		
+		public ParsedScript(Config config, List<ScriptCommand> commands, List<Function<?>> functions, List<ParsedEventData> events, ScriptInfo info) {
+			this.config = config;
+			this.commands = commands;
+			this.functions = functions;
+			this.events = events;
+			this.info = info;
+		}
+		
+		public final Config config;
+		public final List<ScriptCommand> commands;
+		public final List<Function<?>> functions;
+		public final List<ParsedEventData> events;
+		public final ScriptInfo info;
+		
+		/**
+		 * Log of parsing, if the script was parsed in another thread.
+		 */
+		@Nullable
+		public List<LogEntry> log;
 	}
 	
 	/**
@@ -508,6 +678,56 @@ final public class ScriptLoader {
 			return new ScriptInfo();
 		}
 		
+		return enableScript(parseScript(config, null));
+	}
+	
+	/**
+	 * Parses given scripts in parallel, each one in its own
+	 * {@link ParserInstance}. Logs of parsing are retained and printed by
+	 * {@link #enableScript(ParsedScript)}, so that they appear in same order
+	 * as when scripts are loaded one by one.
+	 * @param configs Configs for scripts to be parsed.
+	 * @return Parsed scripts, in same order as configs.
+	 */
+	private static List<ParsedScript> parseScripts(final List<Config> configs) {
+		final ForkJoinPool pool = getParserPool();
+		final List<ForkJoinTask<ParsedScript>> tasks = new ArrayList<>(configs.size());
+		for (final Config config : configs) {
+			assert config != null : configs.toString();
+			tasks.add(pool.submit(() -> {
+				SkriptLogger.setOwnHandlers(true); // Handlers of the loading thread are only used by enableScript
+				final RetainingLogHandler logHandler = SkriptLogger.startRetainingLog();
+				try {
+					ParserInstance.get().setParallel(true);
+					final ParsedScript script = parseScript(config, null);
+					script.log = new ArrayList<>(logHandler.getLog());
+					return script;
+				} finally {
+					logHandler.clear(); // Entries are printed later by enableScript
+					logHandler.printLog(); // Won't print anything, but handler is properly closed
+					SkriptLogger.setOwnHandlers(false);
+				}
+			}));
+		}
+		
+		// Wait for all scripts, cross-script things are linked after this
+		final List<ParsedScript> scripts = new ArrayList<>(tasks.size());
+		for (final ForkJoinTask<ParsedScript> task : tasks)
+			scripts.add(task.join());
+		return scripts;
+	}
+	
+	/**
+	 * Parses one script. Nothing is registered before the script is enabled
+	 * using {@link #enableScript(ParsedScript)}.
+	 * @param config Config for script to be parsed.
+	 * @param unchanged When reloading a script, triggers of its old version
+	 * by their fingerprints. These are reused instead of parsing same code
+	 * again, and commands and functions are not parsed at all. Null to parse
+	 * everything.
+	 * @return The parsed script.
+	 */
+	private static ParsedScript parseScript(final Config config, final @Nullable Map<String, Deque<LoadedTrigger>> unchanged) {
 		// When something is parsed, it goes there to be loaded later
 		List<ScriptCommand> commands = new ArrayList<>();
 		List<Function<?>> functions = new ArrayList<>();
@@ -518,11 +738,20 @@ final public class ScriptLoader {
 		i.files = 1; // Loading one script
 		
 		try {
-			if (SkriptConfig.keepConfigsLoaded.value())
-				SkriptConfig.configs.add(config);
+			if (SkriptConfig.keepConfigsLoaded.value()) {
+				synchronized (SkriptConfig.configs) {
+					SkriptConfig.configs.add(config);
+				}
+			}
+			
+			final ParserInstance pi = ParserInstance.get();
+			pi.getCurrentOptions().clear();
+			pi.setCurrentScript(config);
 			
-			currentOptions.clear();
-			currentScript = config;
+			// Remembers which syntax matched each line, so it can be tried first next time
+			final long parseStart = System.currentTimeMillis();
+			final ParseCache parseCache = SkriptConfig.parseCacheEnabled.value() ? ParseCache.load(config) : null;
+			pi.setParseCache(parseCache);
 
 //			final SerializedScript script = new SerializedScript();
 			
@@ -555,7 +784,7 @@ final public class ScriptLoader {
 								Skript.error("invalid line in options");
 								continue;
 							}
-							currentOptions.put(((EntryNode) n).getKey(), ((EntryNode) n).getValue());
+							pi.getCurrentOptions().put(((EntryNode) n).getKey(), ((EntryNode) n).getValue());
 						}
 						continue;
 					} else if (event.equalsIgnoreCase("variables")) {
@@ -631,6 +860,8 @@ final public class ScriptLoader {
 						continue;
 					
 					if (event.toLowerCase().startsWith("command ")) {
+						if (unchanged != null) // Same as before, still registered
+							continue;
 						
 						setCurrentEvent("command", CommandEvent.class);
 						
@@ -645,6 +876,8 @@ final public class ScriptLoader {
 						
 						continue;
 					} else if (event.toLowerCase().startsWith("function ")) {
+						if (unchanged != null)
+							continue;
 						
 						setCurrentEvent("function", FunctionEvent.class);
 						
@@ -659,6 +892,16 @@ final public class ScriptLoader {
 						continue;
 					}
 					
+					if (unchanged != null) {
+						final Deque<LoadedTrigger> same = unchanged.get(getFingerprint(node));
+						final LoadedTrigger reused = same == null ? null : same.poll();
+						if (reused != null) {
+							events.add(new ParsedEventData(reused, node));
+							i.triggers++;
+							continue;
+						}
+					}
+					
 					if (Skript.logVeryHigh() && !Skript.debug())
 						Skript.info("loading trigger '" + event + "'");
 					
@@ -691,7 +934,13 @@ final public class ScriptLoader {
 				if (Skript.logHigh())
 					Skript.info("loaded " + i.triggers + " trigger" + (i.triggers == 1 ? "" : "s")+ " and " + i.commands + " command" + (i.commands == 1 ? "" : "s") + " from '" + config.getFileName() + "'");
 				
-				currentScript = null;
+				if (parseCache != null) {
+					if (Skript.logHigh())
+						Skript.info("parsed '" + config.getFileName() + "' in " + (System.currentTimeMillis() - parseStart) + "ms (parse cache " + (parseCache.isWarm() ? "up to date" : "cold") + ")");
+					parseCache.save();
+				}
+				
+				pi.setCurrentScript(null);
 				Aliases.setScriptAliases(null); // These are per-script
 			} finally {
 				numErrors.stop();
@@ -700,8 +949,26 @@ final public class ScriptLoader {
 			Skript.exception(e, "Could not load " + config.getFileName());
 		} finally {
 			SkriptLogger.setNode(null);
+			ParserInstance.get().setParseCache(null);
 		}
 		
+		return new ParsedScript(config, commands, functions, events, i);
+	}
+	
+	/**
+	 * Enables a parsed script by registering its commands and triggers.
+	 * @param script Script to be enabled.
+	 * @return Info about script that is loaded
+	 */
+	private static ScriptInfo enableScript(final ParsedScript script) {
+		final List<LogEntry> log = script.log;
+		if (log != null) // Script was parsed in another thread
+			SkriptLogger.logAll(log);
+		
+		final Config config = script.config;
+		final List<ScriptCommand> commands = script.commands;
+		final List<ParsedEventData> events = script.events;
+		
 		// In always sync task, enable stuff
 		Callable<Void> callable = new Callable<Void>() {
 
@@ -722,17 +989,9 @@ final public class ScriptLoader {
 					Commands.registerCommand(command);
 				}
 				
+				final List<LoadedTrigger> triggers = new ArrayList<>(events.size());
 				for (ParsedEventData event : events) {
-					setCurrentEvent("" + event.info.getFirst().getName().toLowerCase(Locale.ENGLISH), event.info.getFirst().events);
-					
-					final Trigger trigger;
-					try {
-						trigger = new Trigger(config.getFile(), event.event, event.info.getSecond(), event.items);
-						trigger.setLineNumber(event.node.getLine()); // Set line number for debugging
-						trigger.setDebugLabel(config.getFileName() + ": line " + event.node.getLine());
-					} finally {
-						deleteCurrentEvent();
-					}
+					final Trigger trigger = createTrigger(config, event);
 					
 					if (event.info.getSecond() instanceof SelfRegisteringSkriptEvent) {
 						((SelfRegisteringSkriptEvent) event.info.getSecond()).register(trigger);
@@ -741,9 +1000,13 @@ final public class ScriptLoader {
 						SkriptEventHandler.addTrigger(event.info.getFirst().events, trigger);
 					}
 					
-					deleteCurrentEvent();
+					triggers.add(new LoadedTrigger(event.fingerprint, event.info, trigger));
 				}
 				
+				// Remember what was loaded, so that reloads can skip unchanged triggers
+				if (SkriptConfig.incrementalReloadEnabled.value())
+					loadedScriptTriggers.put(file, new LoadedScript(getHeaderFingerprint(config), triggers, new ScriptInfo(script.info)));
+				
 				// Remove the script from the disabled scripts list
 				File disabledFile = new File(file.getParentFile(), "-" + file.getName());
 				disabledFiles.remove(disabledFile);
@@ -764,7 +1027,32 @@ final public class ScriptLoader {
 			}
 		}
 		
-		return i;
+		return script.info;
+	}
+	
+	/**
+	 * Creates the trigger of a parsed event, or updates line number of a
+	 * reused one.
+	 * @param config Script of the trigger.
+	 * @param event The parsed event.
+	 * @return The trigger.
+	 */
+	private static Trigger createTrigger(final Config config, final ParsedEventData event) {
+		final LoadedTrigger reused = event.reused;
+		final Trigger trigger;
+		if (reused != null) {
+			trigger = reused.trigger;
+		} else {
+			setCurrentEvent("" + event.info.getFirst().getName().toLowerCase(Locale.ENGLISH), event.info.getFirst().events);
+			try {
+				trigger = new Trigger(config.getFile(), event.event, event.info.getSecond(), event.items);
+			} finally {
+				deleteCurrentEvent();
+			}
+		}
+		trigger.setLineNumber(event.node.getLine()); // Set line number for debugging
+		trigger.setDebugLabel(config.getFileName() + ": line " + event.node.getLine());
+		return trigger;
 	}
 	
 	/**
@@ -888,7 +1176,7 @@ final public class ScriptLoader {
 					}
 				}
 				
-				currentScript = null;
+				setCurrentScript(null);
 			} finally {
 				//numErrors.stop();
 			}
@@ -939,6 +1227,14 @@ final public class ScriptLoader {
 		return r;
 	}
 	
+	/**
+	 * Forgets triggers of all scripts, after they have been disabled without
+	 * unloading them one by one, or when incremental reloading is disabled.
+	 */
+	static void clearLoadedTriggers() {
+		loadedScriptTriggers.clear();
+	}
+	
 	private static ScriptInfo unloadScript_(final File script) {
 		if (loadedFiles.contains(script)) {
 			final ScriptInfo info = SkriptEventHandler.removeTriggers(script); // Remove triggers
@@ -947,6 +1243,7 @@ final public class ScriptLoader {
 			}
 			
 			loadedFiles.remove(script); // We just unloaded it, so...
+			loadedScriptTriggers.remove(script);
 			disabledFiles.add(new File(script.getParentFile(), "-" + script.getName()));
 			
 			// Clear functions, DO NOT validate them yet
@@ -969,6 +1266,11 @@ final public class ScriptLoader {
 	 * @return Statistics of the newly loaded script.
 	 */
 	public static ScriptInfo reloadScript(File script) {
+		if (!isAsync() && SkriptConfig.incrementalReloadEnabled.value()) {
+			final ScriptInfo info = reloadChangedTriggers(script);
+			if (info != null)
+				return info;
+		}
 		if (!isAsync()) {
 			unloadScript_(script);
 		}
@@ -977,6 +1279,144 @@ final public class ScriptLoader {
 		return loadScripts(configs);
 	}
 	
+	/**
+	 * Reloads only triggers of a script that have changed since it was
+	 * loaded. Unchanged triggers are kept as they are, and all triggers of
+	 * the script are swapped at once in main thread, so no event sees the
+	 * script partially reloaded.
+	 * <p>
+	 * Everything else in the script (options, aliases, variables, commands
+	 * and functions) must be unchanged; other triggers may depend on it.
+	 * @param script Script file.
+	 * @return Statistics of the reloaded script, or null if the whole script
+	 * must be reloaded.
+	 */
+	@Nullable
+	private static ScriptInfo reloadChangedTriggers(final File script) {
+		final LoadedScript old = loadedScriptTriggers.get(script);
+		if (old == null || !script.exists())
+			return null;
+		
+		final Config config;
+		try {
+			String name = Skript.getInstance().getDataFolder().toPath().toAbsolutePath()
+					.resolve(Skript.SCRIPTSFOLDER).relativize(script.toPath().toAbsolutePath()).toString();
+			assert name != null;
+			config = new Config(new FileInputStream(script), name, script, true, false, ":");
+		} catch (final IOException e) {
+			return null; // Full reload will report this
+		}
+		if (!getHeaderFingerprint(config).equals(old.header))
+			return null;
+		
+		final Map<String, Deque<LoadedTrigger>> unchanged = new HashMap<>();
+		for (final LoadedTrigger t : old.triggers)
+			unchanged.computeIfAbsent(t.fingerprint, k -> new ArrayDeque<>()).add(t);
+		
+		final ParsedScript parsed;
+		final boolean wasLocal = Language.setUseLocal(false);
+		try {
+			Bukkit.getPluginManager().callEvent(new PreScriptLoadEvent(Collections.singletonList(config)));
+			parsed = parseScript(config, unchanged);
+		} finally {
+			if (wasLocal)
+				Language.setUseLocal(true);
+		}
+		
+		// Old triggers are removed, except unchanged self registering ones which are kept registered
+		final Set<Trigger> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (final ParsedEventData event : parsed.events) {
+			final LoadedTrigger reused = event.reused;
+			if (reused != null && event.info.getSecond() instanceof SelfRegisteringSkriptEvent)
+				kept.add(reused.trigger);
+		}
+		final List<Trigger> removed = new ArrayList<>(old.triggers.size());
+		for (final LoadedTrigger t : old.triggers) {
+			if (!kept.contains(t.trigger))
+				removed.add(t.trigger);
+		}
+		SkriptEventHandler.removeTriggers(removed);
+		
+		// Add triggers in order they are in the script, like a full reload would
+		final List<LoadedTrigger> triggers = new ArrayList<>(parsed.events.size());
+		int reparsed = 0;
+		for (final ParsedEventData event : parsed.events) {
+			final Trigger trigger = createTrigger(config, event);
+			if (event.info.getSecond() instanceof SelfRegisteringSkriptEvent) {
+				if (!kept.contains(trigger)) {
+					((SelfRegisteringSkriptEvent) event.info.getSecond()).register(trigger);
+					SkriptEventHandler.addSelfRegisteringTrigger(trigger);
+				}
+			} else {
+				SkriptEventHandler.addTrigger(event.info.getFirst().events, trigger);
+			}
+			if (event.reused == null)
+				reparsed++;
+			triggers.add(new LoadedTrigger(event.fingerprint, event.info, trigger));
+		}
+		SkriptEventHandler.registerBukkitEvents();
+		
+		final ScriptInfo info = new ScriptInfo(old.info);
+		info.triggers = triggers.size();
+		loadedScriptTriggers.put(script, new LoadedScript(old.header, triggers, info));
+		
+		if (Skript.logHigh())
+			Skript.info("reloaded " + reparsed + " of " + triggers.size() + " trigger" + (triggers.size() == 1 ? "" : "s") + " from '" + config.getFileName() + "'");
+		return new ScriptInfo(info);
+	}
+	
+	/**
+	 * Checks whether given top level section is a trigger, i.e. not options,
+	 * aliases, variables, a command or a function.
+	 */
+	private static boolean isTrigger(final Node node) {
+		final String key = node.getKey();
+		if (!(node instanceof SectionNode) || key == null)
+			return false;
+		final String lower = key.toLowerCase(Locale.ENGLISH);
+		return !lower.equals("aliases") && !lower.equals("options") && !lower.equals("variables")
+				&& !lower.startsWith("command ") && !lower.startsWith("function ");
+	}
+	
+	/**
+	 * Gets fingerprint of everything in a script except triggers. If this
+	 * changes, all triggers must be parsed again.
+	 */
+	private static String getHeaderFingerprint(final Config config) {
+		final Node current = SkriptLogger.getNode();
+		final StringBuilder b = new StringBuilder();
+		for (final Node node : config.getMainNode()) {
+			if (!isTrigger(node))
+				appendFingerprint(b, node);
+		}
+		SkriptLogger.setNode(current); // Iterating sections changes it
+		return "" + b;
+	}
+	
+	/**
+	 * Gets fingerprint of code in given section. Comments, empty lines and
+	 * line numbers are not included, so moving a trigger does not change it.
+	 */
+	private static String getFingerprint(final SectionNode node) {
+		final Node current = SkriptLogger.getNode();
+		final StringBuilder b = new StringBuilder();
+		appendFingerprint(b, node);
+		SkriptLogger.setNode(current);
+		return "" + b;
+	}
+	
+	private static void appendFingerprint(final StringBuilder b, final Node node) {
+		b.append(node.getClass().getSimpleName()).append(' ').append(node.getKey());
+		if (node instanceof EntryNode)
+			b.append(" = ").append(((EntryNode) node).getValue());
+		b.append('\n');
+		if (node instanceof SectionNode) {
+			for (final Node n : (SectionNode) node)
+				appendFingerprint(b, n);
+			b.append("end\n");
+		}
+	}
+	
 	/**
 	 * Reloads all scripts in the given folder and its subfolders.
 	 * @param folder A folder.
@@ -999,7 +1439,7 @@ final public class ScriptLoader {
 			@Override
 			@Nullable
 			public String run(final Matcher m) {
-				final String option = currentOptions.get(m.group(1));
+				final String option = ParserInstance.get().getCurrentOptions().get(m.group(1));
 				if (option == null) {
 					Skript.error("undefined option " + m.group());
 					return m.group();
@@ -1014,8 +1454,9 @@ final public class ScriptLoader {
 	@SuppressWarnings("unchecked")
 	public static ArrayList<TriggerItem> loadItems(final SectionNode node) {
 		
+		final ParserInstance pi = ParserInstance.get();
 		if (Skript.debug())
-			indentation += "    ";
+			pi.setIndentation(pi.getIndentation() + "    ");
 		
 		final ArrayList<TriggerItem> items = new ArrayList<>();
 		
@@ -1032,10 +1473,10 @@ final public class ScriptLoader {
 				if (stmt == null)
 					continue;
 				if (Skript.debug() || n.debug())
-					Skript.debug(indentation + stmt.toString(null, true));
+					Skript.debug(pi.getIndentation() + stmt.toString(null, true));
 				items.add(stmt);
 				if (stmt instanceof Delay)
-					hasDelayBefore = Kleenean.TRUE;
+					pi.setHasDelayBefore(Kleenean.TRUE);
 			} else if (n instanceof SectionNode) {
 				String name = replaceOptions("" + n.getKey());
 				if (!SkriptParser.validateLine(name))
@@ -1063,33 +1504,33 @@ final public class ScriptLoader {
 						continue;
 					}
 					if (Skript.debug() || n.debug())
-						Skript.debug(indentation + "loop " + loopedExpr.toString(null, true) + ":");
-					final Kleenean hadDelayBefore = hasDelayBefore;
+						Skript.debug(pi.getIndentation() + "loop " + loopedExpr.toString(null, true) + ":");
+					final Kleenean hadDelayBefore = pi.getHasDelayBefore();
 					items.add(new Loop(loopedExpr, (SectionNode) n));
-					if (hadDelayBefore != Kleenean.TRUE && hasDelayBefore != Kleenean.FALSE)
-						hasDelayBefore = Kleenean.UNKNOWN;
+					if (hadDelayBefore != Kleenean.TRUE && pi.getHasDelayBefore() != Kleenean.FALSE)
+						pi.setHasDelayBefore(Kleenean.UNKNOWN);
 				} else if (StringUtils.startsWithIgnoreCase(name, "while ")) {
 					final String l = "" + name.substring("while ".length());
 					final Condition c = Condition.parse(l, "Can't understand this condition: " + l);
 					if (c == null)
 						continue;
 					if (Skript.debug() || n.debug())
-						Skript.debug(indentation + "while " + c.toString(null, true) + ":");
-					final Kleenean hadDelayBefore = hasDelayBefore;
+						Skript.debug(pi.getIndentation() + "while " + c.toString(null, true) + ":");
+					final Kleenean hadDelayBefore = pi.getHasDelayBefore();
 					items.add(new While(c, (SectionNode) n));
-					if (hadDelayBefore != Kleenean.TRUE && hasDelayBefore != Kleenean.FALSE)
-						hasDelayBefore = Kleenean.UNKNOWN;
+					if (hadDelayBefore != Kleenean.TRUE && pi.getHasDelayBefore() != Kleenean.FALSE)
+						pi.setHasDelayBefore(Kleenean.UNKNOWN);
 				} else if (name.equalsIgnoreCase("else")) {
 					if (items.size() == 0 || !(items.get(items.size() - 1) instanceof Conditional) || ((Conditional) items.get(items.size() - 1)).hasElseClause()) {
 						Skript.error("'else' has to be placed just after an 'if' or 'else if' section");
 						continue;
 					}
 					if (Skript.debug() || n.debug())
-						Skript.debug(indentation + "else:");
-					final Kleenean hadDelayAfterLastIf = hasDelayBefore;
-					hasDelayBefore = hadDelayBeforeLastIf;
+						Skript.debug(pi.getIndentation() + "else:");
+					final Kleenean hadDelayAfterLastIf = pi.getHasDelayBefore();
+					pi.setHasDelayBefore(hadDelayBeforeLastIf);
 					((Conditional) items.get(items.size() - 1)).loadElseClause((SectionNode) n);
-					hasDelayBefore = hadDelayBeforeLastIf.or(hadDelayAfterLastIf.and(hasDelayBefore));
+					pi.setHasDelayBefore(hadDelayBeforeLastIf.or(hadDelayAfterLastIf.and(pi.getHasDelayBefore())));
 				} else if (StringUtils.startsWithIgnoreCase(name, "else if ")) {
 					if (items.size() == 0 || !(items.get(items.size() - 1) instanceof Conditional) || ((Conditional) items.get(items.size() - 1)).hasElseClause()) {
 						Skript.error("'else if' has to be placed just after another 'if' or 'else if' section");
@@ -1100,11 +1541,11 @@ final public class ScriptLoader {
 					if (cond == null)
 						continue;
 					if (Skript.debug() || n.debug())
-						Skript.debug(indentation + "else if " + cond.toString(null, true));
-					final Kleenean hadDelayAfterLastIf = hasDelayBefore;
-					hasDelayBefore = hadDelayBeforeLastIf;
+						Skript.debug(pi.getIndentation() + "else if " + cond.toString(null, true));
+					final Kleenean hadDelayAfterLastIf = pi.getHasDelayBefore();
+					pi.setHasDelayBefore(hadDelayBeforeLastIf);
 					((Conditional) items.get(items.size() - 1)).loadElseIf(cond, (SectionNode) n);
-					hasDelayBefore = hadDelayBeforeLastIf.or(hadDelayAfterLastIf.and(hasDelayBefore.and(Kleenean.UNKNOWN)));
+					pi.setHasDelayBefore(hadDelayBeforeLastIf.or(hadDelayAfterLastIf.and(pi.getHasDelayBefore().and(Kleenean.UNKNOWN))));
 				} else {
 					if (StringUtils.startsWithIgnoreCase(name, "if "))
 						name = "" + name.substring(3);
@@ -1112,11 +1553,11 @@ final public class ScriptLoader {
 					if (cond == null)
 						continue;
 					if (Skript.debug() || n.debug())
-						Skript.debug(indentation + cond.toString(null, true) + ":");
-					final Kleenean hadDelayBefore = hasDelayBefore;
+						Skript.debug(pi.getIndentation() + cond.toString(null, true) + ":");
+					final Kleenean hadDelayBefore = pi.getHasDelayBefore();
 					hadDelayBeforeLastIf = hadDelayBefore;
 					items.add(new Conditional(cond, (SectionNode) n));
-					hasDelayBefore = hadDelayBefore.or(hasDelayBefore.and(Kleenean.UNKNOWN));
+					pi.setHasDelayBefore(hadDelayBefore.or(pi.getHasDelayBefore().and(Kleenean.UNKNOWN)));
 				}
 				
 				// Destroy these conditional type hints
@@ -1130,7 +1571,7 @@ final public class ScriptLoader {
 		SkriptLogger.setNode(node);
 		
 		if (Skript.debug())
-			indentation = "" + indentation.substring(0, indentation.length() - 4);
+			pi.setIndentation("" + pi.getIndentation().substring(0, pi.getIndentation().length() - 4));
 		
 		return items;
 	}
@@ -1190,12 +1631,12 @@ final public class ScriptLoader {
 	}
 	
 	public static boolean isCurrentEvent(final @Nullable Class<? extends Event> event) {
-		return CollectionUtils.containsSuperclass(currentEvents, event);
+		return CollectionUtils.containsSuperclass(ParserInstance.get().getCurrentEvents(), event);
 	}
 	
 	@SafeVarargs
 	public static boolean isCurrentEvent(final Class<? extends Event>... events) {
-		return CollectionUtils.containsAnySuperclass(currentEvents, events);
+		return CollectionUtils.containsAnySuperclass(ParserInstance.get().getCurrentEvents(), events);
 	}
 	
 	/**
@@ -1203,7 +1644,7 @@ final public class ScriptLoader {
 	 */
 	@Nullable
 	public static Class<? extends Event>[] getCurrentEvents() {
-		return currentEvents;
+		return ParserInstance.get().getCurrentEvents();
 	}
 	
 }
@@ -87,6 +87,7 @@ import ch.njol.skript.classes.data.DefaultConverters;
 import ch.njol.skript.classes.data.DefaultFunctions;
 import ch.njol.skript.classes.data.JavaClasses;
 import ch.njol.skript.classes.data.SkriptClasses;
+import ch.njol.skript.command.ArgumentCompletions;
 import ch.njol.skript.command.Commands;
 import ch.njol.skript.doc.Documentation;
 import ch.njol.skript.events.EvtSkript;
@@ -99,6 +100,7 @@ import ch.njol.skript.lang.ExpressionType;
 import ch.njol.skript.lang.SkriptEvent;
 import ch.njol.skript.lang.SkriptEventInfo;
 import ch.njol.skript.lang.Statement;
+import ch.njol.skript.lang.SyntaxElementIndex;
 import ch.njol.skript.lang.SyntaxElementInfo;
 import ch.njol.skript.lang.Trigger;
 import ch.njol.skript.lang.TriggerItem;
@@ -951,6 +953,7 @@ public final class Skript extends JavaPlugin implements Listener {
 	static void disableScripts() {
 		VariableString.variableNames.clear();
 		SkriptEventHandler.removeAllTriggers();
+		ScriptLoader.clearLoadedTriggers();
 		Commands.clearCommands();
 		Functions.clearFunctions();
 	}
@@ -988,6 +991,7 @@ public final class Skript extends JavaPlugin implements Listener {
 	static void reloadAliases() {
 		Aliases.clear();
 		Aliases.load();
+		ArgumentCompletions.clear();
 	}
 	
 	@SuppressWarnings("null")
@@ -1216,6 +1220,10 @@ public final class Skript extends JavaPlugin implements Listener {
 	private final static Collection<SyntaxElementInfo<? extends Effect>> effects = new ArrayList<>(50);
 	private final static Collection<SyntaxElementInfo<? extends Statement>> statements = new ArrayList<>(100);
 	
+	private final static SyntaxElementIndex<SyntaxElementInfo<? extends Condition>> conditionIndex = new SyntaxElementIndex<>(conditions, "condition");
+	private final static SyntaxElementIndex<SyntaxElementInfo<? extends Effect>> effectIndex = new SyntaxElementIndex<>(effects, "effect");
+	private final static SyntaxElementIndex<SyntaxElementInfo<? extends Statement>> statementIndex = new SyntaxElementIndex<>(statements, "statement");
+	
 	/**
 	 * registers a {@link Condition}.
 	 * 
@@ -1256,12 +1264,44 @@ public final class Skript extends JavaPlugin implements Listener {
 		return effects;
 	}
 	
+	/**
+	 * Gets statements whose patterns might match given text.
+	 * 
+	 * @param text Text to be parsed
+	 * @return Candidate statements, in registration order
+	 */
+	public static Iterator<SyntaxElementInfo<? extends Statement>> getStatements(final String text) {
+		return statementIndex.candidates(text);
+	}
+	
+	/**
+	 * Gets conditions whose patterns might match given text.
+	 * 
+	 * @param text Text to be parsed
+	 * @return Candidate conditions, in registration order
+	 */
+	public static Iterator<SyntaxElementInfo<? extends Condition>> getConditions(final String text) {
+		return conditionIndex.candidates(text);
+	}
+	
+	/**
+	 * Gets effects whose patterns might match given text.
+	 * 
+	 * @param text Text to be parsed
+	 * @return Candidate effects, in registration order
+	 */
+	public static Iterator<SyntaxElementInfo<? extends Effect>> getEffects(final String text) {
+		return effectIndex.candidates(text);
+	}
+	
 	// ================ EXPRESSIONS ================
 	
 	private final static List<ExpressionInfo<?, ?>> expressions = new ArrayList<>(100);
 	
 	private final static int[] expressionTypesStartIndices = new int[ExpressionType.values().length];
 	
+	private final static SyntaxElementIndex<ExpressionInfo<?, ?>> expressionIndex = new SyntaxElementIndex<>(expressions);
+	
 	/**
 	 * Registers an expression.
 	 * 
@@ -1289,7 +1329,22 @@ public final class Skript extends JavaPlugin implements Listener {
 	}
 	
 	public static Iterator<ExpressionInfo<?, ?>> getExpressions(final Class<?>... returnTypes) {
-		return new CheckedIterator<>(getExpressions(), new NullableChecker<ExpressionInfo<?, ?>>() {
+		return new CheckedIterator<>(getExpressions(), getReturnTypeChecker(returnTypes));
+	}
+	
+	/**
+	 * Gets expressions whose patterns might match given text.
+	 * 
+	 * @param text Text to be parsed
+	 * @param returnTypes Types the expressions must be convertible to
+	 * @return Candidate expressions, in the order they are tried by the parser
+	 */
+	public static Iterator<ExpressionInfo<?, ?>> getExpressions(final String text, final Class<?>... returnTypes) {
+		return expressionIndex.candidates(text, getReturnTypeChecker(returnTypes));
+	}
+	
+	private static NullableChecker<ExpressionInfo<?, ?>> getReturnTypeChecker(final Class<?>... returnTypes) {
+		return new NullableChecker<ExpressionInfo<?, ?>>() {
 			@Override
 			public boolean check(final @Nullable ExpressionInfo<?, ?> i) {
 				if (i == null || i.returnType == Object.class)
@@ -1301,13 +1356,15 @@ public final class Skript extends JavaPlugin implements Listener {
 				}
 				return false;
 			}
-		});
+		};
 	}
 	
 	// ================ EVENTS ================
 	
 	private final static Collection<SkriptEventInfo<?>> events = new ArrayList<>(50);
 	
+	private final static SyntaxElementIndex<SkriptEventInfo<?>> eventIndex = new SyntaxElementIndex<>(events);
+	
 	/**
 	 * Registers an event.
 	 * 
@@ -1349,6 +1406,16 @@ public final class Skript extends JavaPlugin implements Listener {
 		return events;
 	}
 	
+	/**
+	 * Gets events whose patterns might match given text.
+	 * 
+	 * @param text Text to be parsed
+	 * @return Candidate events, in registration order
+	 */
+	public static Iterator<SkriptEventInfo<?>> getEvents(final String text) {
+		return eventIndex.candidates(text);
+	}
+	
 	// ================ COMMANDS ================
 	
 	/**
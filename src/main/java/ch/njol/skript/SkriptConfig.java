@@ -310,6 +310,22 @@ public abstract class SkriptConfig {
 			})
 			.optional(true);
 	
+	public final static Option<Boolean> parallelLoaderEnabled = new Option<Boolean>("parallel script loading", false)
+			.optional(true);
+	
+	public final static Option<Boolean> parseCacheEnabled = new Option<Boolean>("parse cache", false)
+			.optional(true);
+	
+	public final static Option<Boolean> incrementalReloadEnabled = new Option<Boolean>("incremental script reload", false)
+			.setter(new Setter<Boolean>() {
+				@Override
+				public void set(final Boolean t) {
+					if (!t) // Triggers of loaded scripts are no longer needed
+						ScriptLoader.clearLoadedTriggers();
+				}
+			})
+			.optional(true);
+	
 	public final static Option<Boolean> allowUnsafePlatforms = new Option<Boolean>("allow unsafe platforms", false)
 			.optional(true);
 
@@ -318,6 +334,55 @@ public abstract class SkriptConfig {
 	
 	public final static Option<Boolean> loadDefaultAliases = new Option<Boolean>("load default aliases", true)
 			.optional(true);
+	
+	public final static Option<Boolean> aliasIndexEnabled = new Option<Boolean>("alias index", false)
+			.optional(true);
+	
+	public final static Option<Timespan> logFileFlushInterval = new Option<Timespan>("log file flush interval", new Timespan(1000))
+			.optional(true);
+	
+	/**
+	 * In kilobytes, 0 to never rotate log files because of their size.
+	 */
+	public final static Option<Integer> logFileMaxSize = new Option<Integer>("log file max size", 0)
+			.optional(true);
+	
+	/**
+	 * 0 to never rotate log files because of their age.
+	 */
+	public final static Option<Timespan> logFileRotationInterval = new Option<Timespan>("log file rotation interval", new Timespan(0))
+			.optional(true);
+	
+	public final static Option<Boolean> compressRotatedLogFiles = new Option<Boolean>("compress rotated log files", false)
+			.optional(true);
+	
+	/**
+	 * Time per tick that changing many blocks at once may take, 0 to always change them at once. Changes that take longer continue on
+	 * the next ticks, while the script goes on.
+	 */
+	public final static Option<Timespan> blockEditTimeBudget = new Option<Timespan>("block edit time budget", new Timespan(0))
+			.optional(true);
+	
+	public final static Option<Boolean> cacheEntityQueries = new Option<Boolean>("cache entity queries", false)
+			.optional(true);
+	
+	/**
+	 * How long regions at a block are remembered, 0 to only remember them until the end of the tick.
+	 */
+	public final static Option<Timespan> regionCacheTime = new Option<Timespan>("region cache time", new Timespan(0))
+			.optional(true);
+	
+	/**
+	 * How long balances of the economy hook are cached, 0 to not cache them. Changes of cached balances are written in the background.
+	 */
+	public final static Option<Timespan> balanceCacheTime = new Option<Timespan>("balance cache time", new Timespan(0))
+			.optional(true);
+	
+	/**
+	 * How long permission checks of a player are cached at most, 0 to not cache them.
+	 */
+	public final static Option<Timespan> permissionCacheTime = new Option<Timespan>("permission cache time", new Timespan(0))
+			.optional(true);
 
 	public final static Option<Boolean> executeFunctionsWithMissingParams = new Option<Boolean>("execute functions with missing parameters", true)
 			.optional(true)
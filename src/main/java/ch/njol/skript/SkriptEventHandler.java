@@ -21,8 +21,11 @@ package ch.njol.skript;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -243,6 +246,33 @@ public abstract class SkriptEventHandler {
 		return info;
 	}
 	
+	/**
+	 * Removes given triggers. Self registering triggers are unregistered from
+	 * their events.
+	 * 
+	 * @param removed Triggers to remove
+	 */
+	static void removeTriggers(final Collection<Trigger> removed) {
+		final Set<Trigger> set = Collections.newSetFromMap(new IdentityHashMap<>());
+		set.addAll(removed);
+		
+		final Iterator<List<Trigger>> triggersIter = SkriptEventHandler.triggers.values().iterator();
+		while (triggersIter.hasNext()) {
+			final List<Trigger> ts = triggersIter.next();
+			if (ts.removeIf(set::contains) && ts.isEmpty())
+				triggersIter.remove();
+		}
+		
+		for (int i = 0; i < selfRegisteredTriggers.size(); i++) {
+			final Trigger t = selfRegisteredTriggers.get(i);
+			if (set.contains(t)) {
+				((SelfRegisteringSkriptEvent) t.getEvent()).unregister(t);
+				selfRegisteredTriggers.remove(i);
+				i--;
+			}
+		}
+	}
+	
 	static void removeAllTriggers() {
 		triggers.clear();
 		for (final Trigger t : selfRegisteredTriggers)
@@ -30,6 +30,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -43,6 +44,7 @@ import ch.njol.skript.config.Config;
 import ch.njol.skript.config.Node;
 import ch.njol.skript.config.SectionNode;
 import ch.njol.skript.entity.EntityData;
+import ch.njol.skript.lang.parser.ParserInstance;
 import ch.njol.skript.localization.ArgsMessage;
 import ch.njol.skript.localization.Language;
 import ch.njol.skript.localization.Message;
@@ -51,6 +53,7 @@ import ch.njol.skript.localization.RegexMessage;
 import ch.njol.skript.log.BlockingLogHandler;
 import ch.njol.skript.log.SkriptLogger;
 import ch.njol.skript.util.EnchantmentType;
+import ch.njol.skript.util.ExceptionUtils;
 import ch.njol.skript.util.Utils;
 import ch.njol.skript.util.Version;
 
@@ -59,16 +62,10 @@ public abstract class Aliases {
 	private static final AliasesProvider provider = createProvider(10000, null);
 	private static final AliasesParser parser = createParser(provider);
 	
-	/**
-	 * Current script aliases.
-	 */
-	@Nullable
-	private static ScriptAliases scriptAliases;
-	
 	@Nullable
 	private static ItemType getAlias_i(final String s) {
 		// Check script aliases first
-		ScriptAliases aliases = scriptAliases;
+		ScriptAliases aliases = ParserInstance.get().getScriptAliases();
 		if (aliases != null) {
 			return aliases.provider.getAlias(s); // Delegates to global provider if needed
 		}
@@ -182,7 +179,7 @@ public abstract class Aliases {
 	@Nullable
 	private static MaterialName getMaterialNameData(ItemData type) {
 		// Check script aliases first
-		ScriptAliases aliases = scriptAliases;
+		ScriptAliases aliases = ParserInstance.get().getScriptAliases();
 		if (aliases != null) {
 			return aliases.provider.getMaterialName(type);
 		}
@@ -412,38 +409,70 @@ public abstract class Aliases {
 		
 		// Load aliases.zip OR aliases from jar (never both)
 		Path zipPath = dataFolder.resolve("aliases-english.zip");
+		Path defaultsPath = null;
+		boolean jar = false;
 		if (!SkriptConfig.loadDefaultAliases.value()) {
 			// Or do nothing, if user requested that default aliases are not loaded
 		} else if (Files.exists(zipPath)) { // Load if it exists
-			try (FileSystem zipFs = FileSystems.newFileSystem(zipPath, Skript.class.getClassLoader())) {
-				assert zipFs != null; // It better not be...
-				Path aliasesPath = zipFs.getPath("/");
-				assert aliasesPath != null;
-				loadDirectory(aliasesPath);
-			}
+			defaultsPath = zipPath;
 		} else { // Fall back to jar loading
 			try {
 				URI jarUri = Skript.class.getProtectionDomain().getCodeSource().getLocation().toURI();
-				try (FileSystem zipFs = FileSystems.newFileSystem(Paths.get(jarUri), Skript.class.getClassLoader())) {
-					assert zipFs != null;
-					Path aliasesPath = zipFs.getPath("/", "aliases-english");
-					assert aliasesPath != null;
-					loadDirectory(aliasesPath);
-				}
+				defaultsPath = Paths.get(jarUri);
+				jar = true;
 			} catch (URISyntaxException e) {
 				assert false;
 			}
-			
 		}
-		
-		// Load everything from aliases folder (user aliases)
 		Path aliasesFolder = dataFolder.resolve("aliases");
-		if (Files.exists(aliasesFolder)) {
-			assert aliasesFolder != null;
-			loadDirectory(aliasesFolder);
+		assert aliasesFolder != null;
+		
+		// Add aliases from index instead of parsing them, if it is up to date
+		AliasesIndex index = null;
+		String checksum = null;
+		if (SkriptConfig.aliasIndexEnabled.value()) {
+			try {
+				checksum = AliasesIndex.checksum(defaultsPath, jar, aliasesFolder);
+			} catch (IOException e) {
+				Skript.warning("Could not check if alias index is up to date, aliases will be parsed again: " + ExceptionUtils.toString(e));
+			}
+		}
+		if (checksum != null) {
+			index = new AliasesIndex(dataFolder.resolve("cache").resolve("aliases.index"), checksum);
+			if (index.load(provider)) {
+				updateTrackedTypes();
+				return;
+			}
+			provider.recording = index;
 		}
 		
-		// Update tracked item types
+		try {
+			if (defaultsPath != null) {
+				try (FileSystem zipFs = FileSystems.newFileSystem(defaultsPath, Skript.class.getClassLoader())) {
+					assert zipFs != null; // It better not be...
+					Path aliasesPath = jar ? zipFs.getPath("/", "aliases-english") : zipFs.getPath("/");
+					assert aliasesPath != null;
+					loadDirectory(aliasesPath);
+				}
+			}
+			
+			// Load everything from aliases folder (user aliases)
+			if (Files.exists(aliasesFolder))
+				loadDirectory(aliasesFolder);
+		} finally {
+			provider.recording = null;
+		}
+		if (index != null)
+			index.save();
+		
+		updateTrackedTypes();
+	}
+	
+	/**
+	 * Updates item types that Skript has requested to be kept up to date
+	 * with aliases.
+	 */
+	private static void updateTrackedTypes() {
 		for (Map.Entry<String, ItemType> entry : trackedTypes.entrySet()) {
 			@SuppressWarnings("null") // No null keys in this map
 			ItemType type = parseItemType(entry.getKey());
@@ -511,13 +540,21 @@ public abstract class Aliases {
 	 */
 	@Nullable
 	public static String getMinecraftId(ItemData data) {
-		ScriptAliases aliases = scriptAliases;
+		ScriptAliases aliases = ParserInstance.get().getScriptAliases();
 		if (aliases != null) {
 			return aliases.provider.getMinecraftId(data);
 		}
 		return provider.getMinecraftId(data);
 	}
 	
+	/**
+	 * Gets names of all global aliases, in singular and plural forms.
+	 * @return Alias names.
+	 */
+	public static Set<String> getAliasNames() {
+		return provider.getAliasNames();
+	}
+	
 	/**
 	 * Gets an entity type related to given item. For example, an armor stand
 	 * item is related with armor stand entity.
@@ -526,7 +563,7 @@ public abstract class Aliases {
 	 */
 	@Nullable
 	public static EntityData<?> getRelatedEntity(ItemData data) {
-		ScriptAliases aliases = scriptAliases;
+		ScriptAliases aliases = ParserInstance.get().getScriptAliases();
 		if (aliases != null) {
 			return aliases.provider.getRelatedEntity(data);
 		}
@@ -594,11 +631,11 @@ public abstract class Aliases {
 	}
 	
 	/**
-	 * Sets script aliases to be used for lookups. Remember to set them to
-	 * null when the script changes.
+	 * Sets script aliases to be used for lookups by current thread. Remember
+	 * to set them to null when the script changes.
 	 * @param aliases Script aliases.
 	 */
 	public static void setScriptAliases(@Nullable ScriptAliases aliases) {
-		scriptAliases = aliases;
+		ParserInstance.get().setScriptAliases(aliases);
 	}
 }
@@ -0,0 +1,269 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.aliases;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.bukkit.Bukkit;
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.google.gson.Gson;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.util.ExceptionUtils;
+
+/**
+ * Aliases and variation groups that were added to a provider when alias files
+ * were parsed, saved so that the next time Skript starts, they can be added
+ * again without parsing the files.
+ * <p>
+ * The index is only used if its checksum matches, i.e. if neither the alias
+ * files, Skript nor server version have changed since it was created.
+ */
+final class AliasesIndex {
+	
+	/**
+	 * Version of the index file format.
+	 */
+	private final static int FORMAT = 1;
+	
+	private final static Gson gson = new Gson();
+	
+	/**
+	 * Arguments of one {@link AliasesProvider#addAlias} call.
+	 */
+	private final static class Entry {
+		
+		final AliasesProvider.AliasName name;
+		final String id;
+		@Nullable
+		final String tags;
+		final Map<String, String> blockStates;
+		
+		Entry(final AliasesProvider.AliasName name, final String id, final @Nullable String tags, final Map<String, String> blockStates) {
+			this.name = name;
+			this.id = id;
+			this.tags = tags;
+			this.blockStates = blockStates;
+		}
+	}
+	
+	private final Path file;
+	private final String checksum;
+	private final List<Entry> entries = new ArrayList<>();
+	private final Map<String, AliasesProvider.VariationGroup> variations = new LinkedHashMap<>();
+	
+	/**
+	 * @param file Where the index is stored.
+	 * @param checksum Checksum of alias sources, see {@link #checksum(Path, boolean, Path)}.
+	 */
+	AliasesIndex(final Path file, final String checksum) {
+		this.file = file;
+		this.checksum = checksum;
+	}
+	
+	/**
+	 * Computes checksum of everything aliases are loaded from.
+	 * @param defaults Zip file or jar of default aliases, or null if they are
+	 * not loaded.
+	 * @param jar Whether default aliases are loaded from Skript's jar. Its
+	 * contents can only change with Skript version, so it is not read.
+	 * @param user Folder of user aliases.
+	 * @return The checksum.
+	 * @throws IOException If reading the sources failed.
+	 */
+	static String checksum(final @Nullable Path defaults, final boolean jar, final Path user) throws IOException {
+		final MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (final NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e); // Every JVM has SHA-256
+		}
+		update(digest, Skript.getVersion().toString());
+		update(digest, Bukkit.getBukkitVersion());
+		if (defaults == null) {
+			update(digest, "no defaults");
+		} else if (jar) {
+			update(digest, defaults + " " + Files.size(defaults) + " " + Files.getLastModifiedTime(defaults));
+		} else {
+			digest.update(Files.readAllBytes(defaults));
+		}
+		if (Files.isDirectory(user)) {
+			try (Stream<Path> files = Files.walk(user)) {
+				final Iterator<Path> iter = files.filter(Files::isRegularFile).sorted().iterator();
+				while (iter.hasNext()) {
+					final Path f = iter.next();
+					update(digest, "" + user.relativize(f));
+					digest.update(Files.readAllBytes(f));
+				}
+			}
+		}
+		final byte[] hash = digest.digest();
+		final char[] r = new char[2 * hash.length];
+		for (int i = 0; i < hash.length; i++) {
+			r[2 * i] = Character.forDigit((hash[i] & 0xF0) >> 4, 16);
+			r[2 * i + 1] = Character.forDigit(hash[i] & 0x0F, 16);
+		}
+		return new String(r);
+	}
+	
+	private static void update(final MessageDigest digest, final String s) {
+		digest.update(s.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+	}
+	
+	/**
+	 * Records an alias that was added to the provider.
+	 */
+	void add(final AliasesProvider.AliasName name, final String id, final @Nullable Map<String, Object> tags, final Map<String, String> blockStates) {
+		entries.add(new Entry(name, id, tags == null ? null : gson.toJson(tags), blockStates));
+	}
+	
+	/**
+	 * Records a variation group that was added to the provider.
+	 */
+	void addVariationGroup(final String name, final AliasesProvider.VariationGroup group) {
+		variations.put(name, group);
+	}
+	
+	/**
+	 * Adds aliases from the index to given provider.
+	 * @param provider Provider to add aliases to.
+	 * @return Whether the index was up to date and all aliases were added.
+	 * If not, nothing was added.
+	 */
+	boolean load(final AliasesProvider provider) {
+		if (!Files.exists(file))
+			return false;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+			if (in.readInt() != FORMAT || !in.readUTF().equals(checksum))
+				return false;
+			final int groups = in.readInt();
+			for (int i = 0; i < groups; i++) {
+				final String groupName = in.readUTF();
+				final AliasesProvider.VariationGroup group = new AliasesProvider.VariationGroup();
+				final int size = in.readInt();
+				for (int j = 0; j < size; j++) {
+					final String key = in.readUTF();
+					final String id = in.readBoolean() ? in.readUTF() : null;
+					final int insertPoint = in.readInt();
+					final Map<String, Object> tags = provider.parseMojangson(in.readUTF());
+					group.put(key, new AliasesProvider.Variation(id, insertPoint, tags, readStates(in)));
+				}
+				provider.addVariationGroup(groupName, group);
+			}
+			final int count = in.readInt();
+			for (int i = 0; i < count; i++) {
+				final AliasesProvider.AliasName name = new AliasesProvider.AliasName(in.readUTF(), in.readUTF(), in.readInt());
+				final String id = in.readUTF();
+				final Map<String, Object> tags = in.readBoolean() ? provider.parseMojangson(in.readUTF()) : null;
+				provider.addAlias(name, id, tags, readStates(in));
+			}
+			return true;
+		} catch (final IOException | InvalidMinecraftIdException e) {
+			Skript.warning("Could not load alias index, aliases will be parsed again: " + (e instanceof IOException ? ExceptionUtils.toString((IOException) e) : e.getMessage()));
+			provider.clearAliases();
+			return false;
+		}
+	}
+	
+	private static Map<String, String> readStates(final DataInputStream in) throws IOException {
+		final int size = in.readInt();
+		final Map<String, String> states = new HashMap<>(size);
+		for (int i = 0; i < size; i++)
+			states.put(in.readUTF(), in.readUTF());
+		return states;
+	}
+	
+	private static void writeStates(final DataOutputStream out, final Map<String, String> states) throws IOException {
+		out.writeInt(states.size());
+		for (final Map.Entry<String, String> state : states.entrySet()) {
+			out.writeUTF(state.getKey());
+			out.writeUTF(state.getValue());
+		}
+	}
+	
+	/**
+	 * Saves recorded aliases and variation groups.
+	 */
+	void save() {
+		final Path temp = file.resolveSibling(file.getFileName() + ".temp");
+		try {
+			Files.createDirectories(file.getParent());
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temp))))) {
+				out.writeInt(FORMAT);
+				out.writeUTF(checksum);
+				out.writeInt(variations.size());
+				for (final Map.Entry<String, AliasesProvider.VariationGroup> group : variations.entrySet()) {
+					out.writeUTF(group.getKey());
+					final List<String> keys = group.getValue().keys;
+					final List<AliasesProvider.Variation> values = group.getValue().values;
+					out.writeInt(keys.size());
+					for (int i = 0; i < keys.size(); i++) {
+						final AliasesProvider.Variation variation = values.get(i);
+						out.writeUTF(keys.get(i));
+						final String id = variation.getId();
+						out.writeBoolean(id != null);
+						if (id != null)
+							out.writeUTF(id);
+						out.writeInt(variation.getInsertPoint());
+						out.writeUTF(gson.toJson(variation.getTags()));
+						writeStates(out, variation.getBlockStates());
+					}
+				}
+				out.writeInt(entries.size());
+				for (final Entry e : entries) {
+					out.writeUTF(e.name.singular);
+					out.writeUTF(e.name.plural);
+					out.writeInt(e.name.gender);
+					out.writeUTF(e.id);
+					final String tags = e.tags;
+					out.writeBoolean(tags != null);
+					if (tags != null)
+						out.writeUTF(tags);
+					writeStates(out, e.blockStates);
+				}
+			}
+			Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+		} catch (final IOException e) {
+			Skript.warning("Could not save alias index: " + ExceptionUtils.toString(e));
+		}
+	}
+	
+}
@@ -24,6 +24,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.bukkit.Material;
 import org.bukkit.inventory.ItemStack;
@@ -159,6 +160,13 @@ public class AliasesProvider {
 	 */
 	private final AliasesMap aliasesMap;
 	
+	/**
+	 * If set, aliases and variation groups added to this provider are
+	 * recorded to this index.
+	 */
+	@Nullable
+	AliasesIndex recording;
+	
 	/**
 	 * Constructs a new aliases provider with no data.
 	 */
@@ -247,6 +255,9 @@ public class AliasesProvider {
 	 * @param blockStates Block states.
 	 */
 	public void addAlias(AliasName name, String id, @Nullable Map<String, Object> tags, Map<String, String> blockStates) {
+		AliasesIndex recording = this.recording;
+		Map<String, String> recordedStates = recording != null ? new HashMap<>(blockStates) : blockStates;
+		
 		// First, try to find if aliases already has a type with this id
 		// (so that aliases can refer to each other)
 		ItemType typeOfId = getAlias(id);
@@ -313,10 +324,16 @@ public class AliasesProvider {
 		// Add item datas we got earlier to the type
 		assert datas != null;
 		type.addAll(datas);
+		
+		if (recording != null)
+			recording.add(name, id, tags, recordedStates);
 	}
 	
 	public void addVariationGroup(String name, VariationGroup group) {
 		variations.put(name, group);
+		AliasesIndex recording = this.recording;
+		if (recording != null)
+			recording.addVariationGroup(name, group);
 	}
 	
 	@Nullable
@@ -378,5 +395,14 @@ public class AliasesProvider {
 	public int getAliasCount() {
 		return aliases.size();
 	}
+	
+	/**
+	 * Gets names of all aliases of this provider, not including aliases of
+	 * its parent.
+	 * @return Alias names.
+	 */
+	public Set<String> getAliasNames() {
+		return Collections.unmodifiableSet(aliases.keySet());
+	}
 
 }
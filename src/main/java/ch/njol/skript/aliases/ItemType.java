@@ -26,6 +26,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -106,6 +107,14 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 	 */
 	final ArrayList<ItemData> types = new ArrayList<>(2);
 	
+	/**
+	 * Materials of all {@link #types}, used to quickly reject items that
+	 * cannot be of this type without comparing their metadata. Computed when
+	 * first needed, and reset when types change.
+	 */
+	@Nullable
+	private transient EnumSet<Material> materials;
+	
 	/**
 	 * Whether this ItemType represents all types or not.
 	 */
@@ -205,6 +214,7 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 		for (final ItemData d : i) {
 			types.add(d.clone());
 		}
+		materials = null;
 	}
 
 	public ItemType(Block block) {
@@ -263,15 +273,50 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 		this.all = all;
 	}
 	
+	/**
+	 * Gets materials of item datas of this type. If any of them matches
+	 * everything, this contains all materials.
+	 * @return Materials that items of this type may have.
+	 */
+	private EnumSet<Material> getMaterials() {
+		EnumSet<Material> materials = this.materials;
+		if (materials == null) {
+			materials = EnumSet.noneOf(Material.class);
+			for (final ItemData d : types) {
+				if (d.isAnything) {
+					materials = EnumSet.allOf(Material.class);
+					break;
+				}
+				materials.add(d.type);
+			}
+			this.materials = materials;
+		}
+		return materials;
+	}
+	
+	/**
+	 * Checks whether an item of given material could be of this type. If
+	 * not, {@link #isOfType(ItemData)} is false for all items of it.
+	 * @param type Material of an item.
+	 * @return Whether the item needs to be compared in detail.
+	 */
+	private boolean mayBeOfType(final Material type) {
+		return getMaterials().contains(type);
+	}
+	
 	public boolean isOfType(@Nullable ItemStack item) {
 		if (item == null)
 			return isOfType(Material.AIR, null);
+		if (!mayBeOfType(item.getType()))
+			return false;
 		return isOfType(new ItemData(item));
 	}
 	
 	public boolean isOfType(@Nullable BlockState block) {
 		if (block == null)
 			return isOfType(Material.AIR, null);
+		if (!mayBeOfType(ItemUtils.asItem(block.getType())))
+			return false;
 		
 		return isOfType(new ItemData(block));
 	}
@@ -279,10 +324,14 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 	public boolean isOfType(@Nullable Block block) {
 		if (block == null)
 			return isOfType(Material.AIR, null);
+		if (!mayBeOfType(ItemUtils.asItem(block.getType())))
+			return false; // Don't create block state if we don't need it
 		return isOfType(block.getState());
 	}
 	
 	public boolean isOfType(ItemData type) {
+		if (!type.isAnything && !mayBeOfType(type.type))
+			return false;
 		for (final ItemData myType : types) {
 			if (myType.equals(type)) {
 				return true;
@@ -292,11 +341,14 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 	}
 	
 	public boolean isOfType(Material id, @Nullable String tags) {
+		if (!mayBeOfType(id))
+			return false;
 		return isOfType(new ItemData(id, tags));
 	}
 	
 	public boolean isOfType(Material id) {
-		// TODO avoid object creation
+		if (!mayBeOfType(id))
+			return false;
 		return isOfType(new ItemData(id, null));
 	}
 	
@@ -399,18 +451,21 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 		if (type != null) {
 			types.add(type);
 			//numItems += type.numItems();
+			materials = null;
 			modified();
 		}
 	}
 	
 	public void addAll(Collection<ItemData> types) {
 		this.types.addAll(types);
+		materials = null;
 		modified();
 	}
 	
 	public void remove(ItemData type) {
 		if (types.remove(type)) {
 			//numItems -= type.numItems();
+			materials = null;
 			modified();
 		}
 	}
@@ -418,6 +473,7 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 	void remove(int index) {
 		ItemData type = types.remove(index);
 		//numItems -= type.numItems();
+		materials = null;
 		modified();
 	}
 	
@@ -693,9 +749,29 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 	 * @return Whether everything could be removed from the inventory
 	 */
 	public boolean removeFrom(Inventory invi) {
+		return removeFrom(invi, Collections.singletonList(this), false);
+	}
+	
+	/**
+	 * Removes all given item types from the given inventory. Contents of the
+	 * inventory are copied once, all types are removed from the copy and it is
+	 * written back once. Does not call updateInventory for players.
+	 * 
+	 * @param invi
+	 * @param types Item types to remove, in order.
+	 * @param all Whether to remove all items of the types like {@link #removeAll(Inventory)},
+	 *            or only their amounts like {@link #removeFrom(Inventory)}.
+	 * @return Whether everything could be removed from the inventory
+	 */
+	public static boolean removeFrom(Inventory invi, Collection<ItemType> types, boolean all) {
+		if (types.isEmpty())
+			return true;
 		ItemStack[] buf = getCopiedContents(invi);
+		List<ItemStack> list = Arrays.asList(buf);
 		
-		final boolean ok = removeFrom(Arrays.asList(buf));
+		boolean ok = true;
+		for (ItemType type : types)
+			ok &= all ? type.removeAll(list) : type.removeFrom(list);
 		
 		invi.setContents(buf);
 		return ok;
@@ -743,7 +819,8 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 					 * it to return true for two "same items", even if their
 					 * item meta is completely different.
 					 */
-					if (is != null && d.matchAlias(new ItemData(is)).isAtLeast(MatchQuality.EXACT)) {
+					if (is != null && (d.isAnything || is.getType() == d.type) // Don't create item data if material is different
+							&& d.matchAlias(new ItemData(is)).isAtLeast(MatchQuality.EXACT)) {
 						if (all && amount == -1) {
 							list.set(i, null);
 							removed = 1;
@@ -794,6 +871,21 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 	 * @return Whether everything could be added to the inventory
 	 */
 	public boolean addTo(final Inventory invi) {
+		return addTo(invi, Collections.singletonList(this));
+	}
+	
+	/**
+	 * Tries to add all given item types to the given inventory. Contents of
+	 * the inventory are read once, all types are added to them and they are
+	 * written back once. Does not call updateInventory for players.
+	 * 
+	 * @param invi
+	 * @param types Item types to add, in order.
+	 * @return Whether everything could be added to the inventory
+	 */
+	public static boolean addTo(final Inventory invi, final Collection<ItemType> types) {
+		if (types.isEmpty())
+			return true;
 		// important: don't use inventory.add() - it ignores max stack sizes
 		ItemStack[] buf = invi.getContents();
 		
@@ -805,7 +897,9 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 			}
 		}
 		
-		final boolean b = addTo(buf);
+		boolean b = true;
+		for (final ItemType type : types)
+			b &= type.addTo(buf);
 		
 		if (invi instanceof PlayerInventory) {
 			buf = Arrays.copyOf(buf, tBuf.length);
@@ -129,11 +129,11 @@ public class NewBlockCompat implements BlockCompat {
 			if (!typesLoaded)
 				loadTypes();
 			
-			boolean rotate = (flags | ROTATE) != 0;
-			boolean rotateForce = (flags | ROTATE_FORCE) != 0;
-			boolean rotateFixType = (flags | ROTATE_FIX_TYPE) != 0;
-			boolean multipart = (flags | MULTIPART) != 0;
-			boolean applyPhysics = (flags | APPLY_PHYSICS) != 0;
+			boolean rotate = (flags & ROTATE) != 0;
+			boolean rotateForce = (flags & ROTATE_FORCE) != 0;
+			boolean rotateFixType = (flags & ROTATE_FIX_TYPE) != 0;
+			boolean multipart = (flags & MULTIPART) != 0;
+			boolean applyPhysics = (flags & APPLY_PHYSICS) != 0;
 			NewBlockValues ourValues = null;
 			if (values != null)
 				ourValues = (NewBlockValues) values;
@@ -163,7 +163,7 @@ public class NewBlockCompat implements BlockCompat {
 					if (!canPlace) {
 						BlockFace face = findWallTorchSide(block);
 						if (face != null) { // Found better torch spot
-							block.setType(wallTorch.getMaterial());
+							block.setType(wallTorch.getMaterial(), applyPhysics);
 							Directional data = (Directional) block.getBlockData();
 							data.setFacing(face);
 							block.setBlockData(data, applyPhysics);
@@ -182,7 +182,7 @@ public class NewBlockCompat implements BlockCompat {
 						// Attempt to figure out a better rotation
 						BlockFace face = findWallTorchSide(block);
 						if (face != null) { // Found better torch spot
-							block.setType(type);
+							block.setType(type, applyPhysics);
 							data.setFacing(face);
 							block.setBlockData(data, applyPhysics);
 							placed = true;
@@ -257,7 +257,7 @@ public class NewBlockCompat implements BlockCompat {
 			
 			// Generic block placement
 			if (!placed) {
-				block.setType(type);
+				block.setType(type, applyPhysics);
 				if (ourValues != null && !ourValues.isDefault())
 					block.setBlockData(ourValues.data, applyPhysics);
 			}
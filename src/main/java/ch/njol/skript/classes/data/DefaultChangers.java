@@ -19,6 +19,9 @@
  */
 package ch.njol.skript.classes.data;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.bukkit.Material;
 import org.bukkit.block.Block;
 import org.bukkit.block.BlockState;
@@ -34,9 +37,12 @@ import org.bukkit.potion.PotionEffectType;
 import org.eclipse.jdt.annotation.Nullable;
 
 import ch.njol.skript.Skript;
+import ch.njol.skript.SkriptConfig;
 import ch.njol.skript.aliases.ItemType;
 import ch.njol.skript.bukkitutil.PlayerUtils;
 import ch.njol.skript.classes.Changer;
+import ch.njol.skript.classes.Changer.ChangeMode;
+import ch.njol.skript.util.BlockEditBatch;
 import ch.njol.skript.util.Experience;
 import ch.njol.util.coll.CollectionUtils;
 
@@ -221,17 +227,19 @@ public class DefaultChangers {
 								}
 							}
 						} else {
+							final List<ItemType> types = new ArrayList<>(delta.length);
 							for (final Object d : delta) {
 								if (d instanceof ItemStack) {
-									new ItemType((ItemStack) d).addTo(invi); // Can't imagine why would be ItemStack, but just in case...
+									types.add(new ItemType((ItemStack) d)); // Can't imagine why would be ItemStack, but just in case...
 								} else if (d instanceof ItemType) {
-									((ItemType) d).addTo(invi);
+									types.add((ItemType) d);
 								} else if (d instanceof Block) {
-									new ItemType((Block) d).addTo(invi);
+									types.add(new ItemType((Block) d));
 								} else {
 									Skript.error("Can't " + d.toString() + " to an inventory!");
 								}
 							}
+							ItemType.addTo(invi, types);
 						}
 						
 						break;
@@ -258,17 +266,7 @@ public class DefaultChangers {
 						}
 						
 						// Slow path
-						for (final Object d : delta) {
-							if (d instanceof Inventory) {
-								assert mode == ChangeMode.REMOVE;
-								invi.removeItem(((Inventory) d).getContents());
-							} else {
-								if (mode == ChangeMode.REMOVE)
-									((ItemType) d).removeFrom(invi);
-								else
-									((ItemType) d).removeAll(invi);
-							}
-						}
+						removeFrom(invi, delta, mode);
 						break;
 					case RESET:
 						assert false;
@@ -294,6 +292,20 @@ public class DefaultChangers {
 		
 		@Override
 		public void change(final Block[] blocks, final @Nullable Object[] delta, final ChangeMode mode) {
+			if (blocks.length > 1 && (mode == ChangeMode.SET || mode == ChangeMode.DELETE)) {
+				ItemType type = null;
+				if (mode == ChangeMode.SET) {
+					assert delta != null;
+					type = (ItemType) delta[0];
+				}
+				final BlockEditBatch batch = new BlockEditBatch(true);
+				for (final Block block : blocks) {
+					assert block != null;
+					batch.set(block, type);
+				}
+				batch.apply(SkriptConfig.blockEditTimeBudget.value().getMilliSeconds(), null);
+				return;
+			}
 			for (final Block block : blocks) {
 				assert block != null;
 				switch (mode) {
@@ -324,16 +336,7 @@ public class DefaultChangers {
 								}
 							}
 						} else {
-							for (final Object d : delta) {
-								if (d instanceof Inventory) {
-									invi.removeItem(((Inventory) d).getContents());
-								} else {
-									if (mode == ChangeMode.REMOVE)
-										((ItemType) d).removeFrom(invi);
-									else
-										((ItemType) d).removeAll(invi);
-								}
-							}
+							removeFrom(invi, delta, mode);
 						}
 						state.update();
 						break;
@@ -344,4 +347,23 @@ public class DefaultChangers {
 		}
 	};
 	
+	/**
+	 * Removes items and contents of inventories from an inventory. Item types
+	 * are removed in batches, so that the inventory contents are not copied
+	 * and written back for each of them.
+	 */
+	private static void removeFrom(final Inventory invi, final Object[] delta, final ChangeMode mode) {
+		final List<ItemType> types = new ArrayList<>(delta.length);
+		for (final Object d : delta) {
+			if (d instanceof Inventory) {
+				ItemType.removeFrom(invi, types, mode == ChangeMode.REMOVE_ALL); // Keep order of removals
+				types.clear();
+				invi.removeItem(((Inventory) d).getContents());
+			} else {
+				types.add((ItemType) d);
+			}
+		}
+		ItemType.removeFrom(invi, types, mode == ChangeMode.REMOVE_ALL);
+	}
+	
 }
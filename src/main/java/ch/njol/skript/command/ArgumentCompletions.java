@@ -0,0 +1,149 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.command;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.eclipse.jdt.annotation.Nullable;
+
+import ch.njol.skript.aliases.Aliases;
+import ch.njol.skript.aliases.ItemType;
+import ch.njol.skript.classes.ClassInfo;
+import ch.njol.skript.classes.Parser;
+import ch.njol.skript.localization.Language;
+import ch.njol.skript.registrations.Classes;
+
+/**
+ * Tab completions of command arguments, based on their types.
+ * <p>
+ * Values of types with a fixed set of values (enums with a parser, and
+ * aliases for item types) are collected once per type and kept sorted, so
+ * that values starting with what the player has typed are found with a
+ * binary search. These are cleared when the language or aliases are
+ * reloaded. Worlds can be loaded at any time, so they are not cached.
+ */
+public final class ArgumentCompletions {
+	
+	private ArgumentCompletions() {}
+	
+	/**
+	 * Values of one type, sorted ignoring case.
+	 */
+	private final static class Values {
+		
+		final String[] values;
+		
+		Values(final Collection<String> values) {
+			final String[] array = values.toArray(new String[values.size()]);
+			Arrays.sort(array, String.CASE_INSENSITIVE_ORDER);
+			this.values = array;
+		}
+		
+		List<String> startingWith(final String prefix) {
+			final String[] values = this.values;
+			int low = 0, high = values.length;
+			while (low < high) { // First value not before prefix
+				final int mid = (low + high) >>> 1;
+				if (String.CASE_INSENSITIVE_ORDER.compare(values[mid], prefix) < 0)
+					low = mid + 1;
+				else
+					high = mid;
+			}
+			int end = low;
+			while (end < values.length && values[end].regionMatches(true, 0, prefix, 0, prefix.length()))
+				end++;
+			if (low == end)
+				return Collections.emptyList();
+			return new ArrayList<>(Arrays.asList(values).subList(low, end));
+		}
+	}
+	
+	private final static Values NONE = new Values(Collections.emptyList());
+	
+	private final static Map<Class<?>, Values> cache = new ConcurrentHashMap<>();
+	
+	static {
+		Language.addListener(ArgumentCompletions::clear); // Enum names are localized
+	}
+	
+	/**
+	 * Forgets all cached values, e.g. because aliases were reloaded.
+	 */
+	public static void clear() {
+		cache.clear();
+	}
+	
+	/**
+	 * Gets completions for an argument.
+	 * 
+	 * @param type Type of the argument.
+	 * @param prefix What has been typed of the argument so far.
+	 * @return Values starting with the prefix, or null to use default
+	 * completion (player names).
+	 */
+	@Nullable
+	public static List<String> complete(final Class<?> type, final String prefix) {
+		if (type == Player.class || type == OfflinePlayer.class)
+			return null;
+		if (type == World.class) {
+			final List<String> worlds = new ArrayList<>();
+			for (final World w : Bukkit.getWorlds()) {
+				if (w.getName().regionMatches(true, 0, prefix, 0, prefix.length()))
+					worlds.add(w.getName());
+			}
+			return worlds;
+		}
+		Values values = cache.get(type);
+		if (values == null)
+			cache.put(type, values = getValues(type));
+		return values.startingWith(prefix);
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static Values getValues(final Class<?> type) {
+		final List<String> values = new ArrayList<>();
+		if (type == ItemType.class) {
+			values.addAll(Aliases.getAliasNames());
+		} else if (type.isEnum()) {
+			final ClassInfo<?> ci = Classes.getExactClassInfo(type);
+			final Parser<?> parser = ci == null ? null : ci.getParser();
+			if (parser == null)
+				return NONE;
+			for (final Object constant : type.getEnumConstants())
+				values.add(((Parser<Object>) parser).toString(constant, 0));
+		} else {
+			return NONE;
+		}
+		// Arguments are separated by spaces, values with spaces can't be completed
+		values.removeIf(value -> value.isEmpty() || value.indexOf(' ') != -1);
+		return new Values(values);
+	}
+	
+}
@@ -66,12 +66,14 @@ import ch.njol.skript.lang.ParseContext;
 import ch.njol.skript.lang.SkriptParser;
 import ch.njol.skript.lang.TriggerItem;
 import ch.njol.skript.lang.VariableString;
+import ch.njol.skript.lang.parser.ParserInstance;
 import ch.njol.skript.localization.ArgsMessage;
 import ch.njol.skript.localization.Language;
 import ch.njol.skript.localization.Message;
 import ch.njol.skript.log.RetainingLogHandler;
 import ch.njol.skript.log.SkriptLogger;
 import ch.njol.skript.registrations.Classes;
+import ch.njol.skript.util.PermissionCache;
 import ch.njol.skript.util.StringMode;
 import ch.njol.skript.util.Timespan;
 import ch.njol.skript.util.Utils;
@@ -143,9 +145,29 @@ public abstract class Commands {
 			.addEntry("executable by", true)
 			.addSection("trigger", false);
 	
+	/**
+	 * Only used when scripts are not parsed in parallel, see
+	 * {@link ParserInstance#isParallel()}.
+	 * @deprecated Use {@link #getCurrentArguments()} and
+	 * {@link #setCurrentArguments(List)}.
+	 */
+	@Deprecated
 	@Nullable
 	public static List<Argument<?>> currentArguments = null;
 	
+	/**
+	 * Gets arguments of the command that is being parsed by current thread.
+	 * @return Current arguments, or null if not parsing a command.
+	 */
+	@Nullable
+	public static List<Argument<?>> getCurrentArguments() {
+		return ParserInstance.get().getCurrentArguments();
+	}
+	
+	public static void setCurrentArguments(@Nullable List<Argument<?>> arguments) {
+		ParserInstance.get().setCurrentArguments(arguments);
+	}
+	
 	@SuppressWarnings("null")
 	private final static Pattern escape = Pattern.compile("[" + Pattern.quote("(|)<>%\\") + "]");
 	@SuppressWarnings("null")
@@ -340,7 +362,8 @@ public abstract class Commands {
 		final String arguments = m.group(3) == null ? "" : m.group(3);
 		final StringBuilder pattern = new StringBuilder();
 		
-		List<Argument<?>> currentArguments = Commands.currentArguments = new ArrayList<>(); //Mirre
+		List<Argument<?>> currentArguments = new ArrayList<>(); //Mirre
+		setCurrentArguments(currentArguments);
 		m = argumentPattern.matcher(arguments);
 		int lastEnd = 0;
 		int optionals = 0;
@@ -479,14 +502,14 @@ public abstract class Commands {
 			return null;
 		}
 		
-		Commands.currentArguments = currentArguments;
+		setCurrentArguments(currentArguments);
 		final ScriptCommand c;
 		try {
 			c = new ScriptCommand(config, command, "" + pattern.toString(), currentArguments, description, usage,
 					aliases, permission, permissionMessage, cooldown, cooldownMessage, cooldownBypass, cooldownStorage,
 					executableBy, ScriptLoader.loadItems(trigger));
 		} finally {
-			Commands.currentArguments = null;
+			setCurrentArguments(null);
 		}
 		
 		if (alsoRegister)
@@ -612,7 +635,7 @@ public abstract class Commands {
 				}
 			} else {
 				assert amendedPermission != null;
-				return commandSender.hasPermission(amendedPermission);
+				return PermissionCache.hasPermission(commandSender, amendedPermission);
 			}
 		}
 	}
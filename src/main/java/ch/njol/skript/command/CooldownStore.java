@@ -0,0 +1,130 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.command;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import ch.njol.skript.SkriptConfig;
+import ch.njol.skript.util.Date;
+
+/**
+ * Last usage dates of a command that has a cooldown but no cooldown storage
+ * variable.
+ * <p>
+ * Usages are also kept in a queue ordered by the end of their cooldowns,
+ * which scripts may set far into the future. Whenever the store is used,
+ * usages whose cooldown has ended are removed from the head of the queue, so
+ * that players who used the command once do not stay in memory forever.
+ * Usages that have been replaced are dropped from the queue once they make up
+ * most of it.
+ * This is not done if last usage dates must be kept (see
+ * {@link SkriptConfig#keepLastUsageDates}).
+ */
+final class CooldownStore {
+	
+	/**
+	 * Removing is stopped after this many usages, so that one command does
+	 * not have to purge everything that has expired since the last one.
+	 */
+	private final static int MAX_PURGE = 64;
+	
+	private final static class Usage {
+		
+		final UUID uuid;
+		final Date date;
+		final long expires;
+		
+		Usage(final UUID uuid, final Date date, final long expires) {
+			this.uuid = uuid;
+			this.date = date;
+			this.expires = expires;
+		}
+	}
+	
+	private final long cooldown;
+	
+	private final Map<UUID, Usage> lastUsages = new ConcurrentHashMap<>();
+	
+	/**
+	 * Usages by end of cooldown. Guarded by itself.
+	 */
+	private final PriorityQueue<Usage> expiring = new PriorityQueue<>(Comparator.comparingLong(u -> u.expires));
+	
+	/**
+	 * @param cooldown Cooldown of the command in milliseconds, or 0 if usages
+	 * should never be removed.
+	 */
+	CooldownStore(final long cooldown) {
+		this.cooldown = cooldown;
+	}
+	
+	@Nullable
+	Date get(final UUID uuid) {
+		purge();
+		final Usage usage = lastUsages.get(uuid);
+		return usage == null ? null : usage.date;
+	}
+	
+	void set(final UUID uuid, final @Nullable Date date) {
+		purge();
+		if (date == null) {
+			lastUsages.remove(uuid);
+		} else {
+			final Usage usage = new Usage(uuid, date, date.getTimestamp() + cooldown);
+			lastUsages.put(uuid, usage);
+			if (cooldown > 0 && !SkriptConfig.keepLastUsageDates.value()) {
+				synchronized (expiring) {
+					expiring.add(usage);
+					if (expiring.size() > 2 * lastUsages.size() + MAX_PURGE) { // Mostly replaced usages
+						expiring.clear();
+						expiring.addAll(lastUsages.values());
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Removes usages whose cooldown has ended from the head of the queue.
+	 */
+	private void purge() {
+		synchronized (expiring) {
+			if (SkriptConfig.keepLastUsageDates.value()) {
+				expiring.clear();
+				return;
+			}
+			final long now = System.currentTimeMillis();
+			for (int i = 0; i < MAX_PURGE; i++) {
+				final Usage usage = expiring.peek();
+				if (usage == null || usage.expires > now)
+					return;
+				expiring.poll();
+				lastUsages.remove(usage.uuid, usage); // Unless used again
+			}
+		}
+	}
+	
+}
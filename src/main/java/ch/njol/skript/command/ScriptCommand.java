@@ -35,7 +35,6 @@ import java.util.UUID;
 
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
-import org.bukkit.OfflinePlayer;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.PluginCommand;
@@ -69,6 +68,7 @@ import ch.njol.skript.log.SkriptLogger;
 import ch.njol.skript.log.Verbosity;
 import ch.njol.skript.util.Date;
 import ch.njol.skript.util.EmptyStacktraceException;
+import ch.njol.skript.util.PermissionCache;
 import ch.njol.skript.util.Timespan;
 import ch.njol.skript.util.Utils;
 import ch.njol.skript.util.chat.BungeeConverter;
@@ -103,6 +103,7 @@ public class ScriptCommand implements TabExecutor {
 	final Trigger trigger;
 
 	private final String pattern;
+	private final SkriptParser.CommandPattern compiledPattern;
 	private final List<Argument<?>> arguments;
 
 	public final static int PLAYERS = 0x1, CONSOLE = 0x2, BOTH = PLAYERS | CONSOLE;
@@ -110,7 +111,7 @@ public class ScriptCommand implements TabExecutor {
 
 	private transient PluginCommand bukkitCommand;
 
-	private Map<UUID,Date> lastUsageMap = new HashMap<>();
+	private final CooldownStore lastUsages;
 
 	/**
 	 * Creates a new SkriptCommand.
@@ -148,6 +149,7 @@ public class ScriptCommand implements TabExecutor {
 				: cooldownMessage;
 		this.cooldownBypass = cooldownBypass;
 		this.cooldownStorage = cooldownStorage;
+		lastUsages = new CooldownStore(cooldown == null ? 0 : cooldown.getMilliSeconds());
 
 		// remove aliases that are the same as the command
 		aliases.removeIf(label::equalsIgnoreCase);
@@ -160,6 +162,7 @@ public class ScriptCommand implements TabExecutor {
 		this.executableBy = executableBy;
 
 		this.pattern = pattern;
+		compiledPattern = SkriptParser.compileCommandPattern(pattern);
 		this.arguments = arguments;
 
 		trigger = new Trigger(script, "command /" + name, new SimpleEvent(), items);
@@ -211,7 +214,7 @@ public class ScriptCommand implements TabExecutor {
 
 		final ScriptCommandEvent event = new ScriptCommandEvent(ScriptCommand.this, sender);
 
-		if (!permission.isEmpty() && !sender.hasPermission(permission)) {
+		if (!permission.isEmpty() && !PermissionCache.hasPermission(sender, permission)) {
 			if (sender instanceof Player) {
 				List<MessageComponent> components =
 						permissionMessage.getMessageComponents(event);
@@ -228,13 +231,14 @@ public class ScriptCommand implements TabExecutor {
 				UUID uuid = player.getUniqueId();
 
 				// Cooldown bypass
-				if (!cooldownBypass.isEmpty() && player.hasPermission(cooldownBypass)) {
+				if (!cooldownBypass.isEmpty() && PermissionCache.hasPermission(player, cooldownBypass)) {
 					setLastUsage(uuid, event, null);
 					break cooldownCheck;
 				}
 
-				if (getLastUsage(uuid, event) != null) {
-					if (getRemainingMilliseconds(uuid, event) <= 0) {
+				final Date lastUsage = getLastUsage(uuid, event);
+				if (lastUsage != null) {
+					if (getRemainingMilliseconds(lastUsage) <= 0) {
 						if (!SkriptConfig.keepLastUsageDates.value())
 							setLastUsage(uuid, event, null);
 					} else {
@@ -316,6 +320,13 @@ public class ScriptCommand implements TabExecutor {
 		return pattern;
 	}
 
+	/**
+	 * @return Argument pattern of this command, compiled for parsing arguments.
+	 */
+	public SkriptParser.CommandPattern getCompiledPattern() {
+		return compiledPattern;
+	}
+
 	@Nullable
 	private transient Command overridden = null;
 	private transient Map<String, Command> overriddenAliases = new HashMap<>();
@@ -446,7 +457,7 @@ public class ScriptCommand implements TabExecutor {
 	@Nullable
 	public Date getLastUsage(UUID uuid, Event event) {
 		if (cooldownStorage == null) {
-			return lastUsageMap.get(uuid);
+			return lastUsages.get(uuid);
 		} else {
 			String name = getStorageVariableName(event);
 			assert name != null;
@@ -459,13 +470,12 @@ public class ScriptCommand implements TabExecutor {
 			// Using a variable
 			String name = getStorageVariableName(event);
 			assert name != null;
-			Variables.setVariable(name, date, null, false);
+			// Don't queue a save of a variable that is already deleted
+			if (date != null || Variables.getVariable(name, null, false) != null)
+				Variables.setVariable(name, date, null, false);
 		} else {
-			// Use the map
-			if (date == null)
-				lastUsageMap.remove(uuid);
-			else
-				lastUsageMap.put(uuid, date);
+			// Use the in-memory store
+			lastUsages.set(uuid, date);
 		}
 	}
 
@@ -473,9 +483,13 @@ public class ScriptCommand implements TabExecutor {
 		Date lastUsage = getLastUsage(uuid, event);
 		if (lastUsage == null)
 			return 0;
+		return getRemainingMilliseconds(lastUsage);
+	}
+
+	private long getRemainingMilliseconds(Date lastUsage) {
 		Timespan cooldown = this.cooldown;
 		assert cooldown != null;
-		long remaining = cooldown.getMilliSeconds() - getElapsedMilliseconds(uuid, event);
+		long remaining = cooldown.getMilliSeconds() - (new Date().getTimestamp() - lastUsage.getTimestamp());
 		if (remaining < 0)
 			remaining = 0;
 		return remaining;
@@ -530,11 +544,9 @@ public class ScriptCommand implements TabExecutor {
 		if (argIndex >= arguments.size())
 			return Collections.emptyList(); // Too many arguments, nothing to complete
 		Argument<?> arg = arguments.get(argIndex);
-		Class<?> argType = arg.getType();
-		if (argType.equals(Player.class) || argType.equals(OfflinePlayer.class))
-			return null; // Default completion
-		
-		return Collections.emptyList(); // No tab completion here!
+		String prefix = args[argIndex];
+		assert prefix != null;
+		return ArgumentCompletions.complete(arg.getType(), prefix); // Null for default completion
 	}
 
 }
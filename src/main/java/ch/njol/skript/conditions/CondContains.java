@@ -140,9 +140,10 @@ public class CondContains extends Condition {
 		return containers.check(e, (Checker<Object>) container -> {
 			if (container instanceof Inventory) {
 				Inventory inv = (Inventory) container;
+				ItemStack[] contents = inv.getContents(); // Read contents once for all item types
 				return items.check(e, (Checker<Object>) type -> {
 					if (type instanceof ItemType)
-						return ((ItemType) type).isContainedIn(inv);
+						return ((ItemType) type).isContainedIn(contents);
 					if (type instanceof ItemStack)
 						return inv.contains((ItemStack) type);
 					return false;
@@ -33,6 +33,7 @@ import ch.njol.skript.doc.Since;
 import ch.njol.skript.lang.Condition;
 import ch.njol.skript.lang.Expression;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.skript.util.PermissionCache;
 import ch.njol.util.Kleenean;
 
 /**
@@ -71,13 +72,13 @@ public class CondPermission extends Condition {
 		return senders.check(e,
 				s -> permissions.check(e,
 						perm -> {
-							if (s.hasPermission(perm))
+							if (PermissionCache.hasPermission(s, perm))
 								return true;
 							// player has perm skript.foo.bar if he has skript.foo.* or skript.*,
 							// but not for other plugin's permissions since they can define their own *
 							if (perm.startsWith("skript.")) {
 								for (int i = perm.lastIndexOf('.'); i != -1; i = perm.lastIndexOf('.', i - 1)) {
-									if (s.hasPermission(perm.substring(0, i + 1) + "*"))
+									if (PermissionCache.hasPermission(s, perm.substring(0, i + 1) + "*"))
 										return true;
 								}
 							}
@@ -19,6 +19,9 @@
  */
 package ch.njol.skript.effects;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.bukkit.Bukkit;
 import org.bukkit.World;
 import org.bukkit.entity.Player;
@@ -63,21 +66,28 @@ public class EffBroadcast extends Effect {
 	
 	@Override
 	public void execute(final Event e) {
-		for (final String m : messages.getArray(e)) {
-			final Expression<World> worlds = this.worlds;
-			if (worlds == null) {
-				// not Bukkit.broadcastMessage to ignore permissions
-				for (final Player p : PlayerUtils.getOnlinePlayers()) {
-					p.sendMessage(m);
-				}
-				Bukkit.getConsoleSender().sendMessage(m);
-			} else {
-				for (final World w : worlds.getArray(e)) {
-					for (final Player p : w.getPlayers()) {
-						p.sendMessage(m);
-					}
-				}
+		final String[] messages = this.messages.getArray(e);
+		if (messages.length == 0)
+			return;
+		
+		// Find receivers once for all messages
+		final Expression<World> worlds = this.worlds;
+		final List<Player> players;
+		if (worlds == null) {
+			// not Bukkit.broadcastMessage to ignore permissions
+			players = new ArrayList<>(PlayerUtils.getOnlinePlayers());
+		} else {
+			players = new ArrayList<>();
+			for (final World w : worlds.getArray(e))
+				players.addAll(w.getPlayers());
+		}
+		
+		for (final String m : messages) {
+			for (final Player p : players) {
+				p.sendMessage(m);
 			}
+			if (worlds == null)
+				Bukkit.getConsoleSender().sendMessage(m);
 		}
 	}
 	
@@ -72,7 +72,7 @@ public class EffContinue extends Effect {
 
 	@Override
 	public boolean init(Expression<?>[] exprs, int matchedPattern, Kleenean isDelayed, SkriptParser.ParseResult parseResult) {
-		List<Loop> loops = ScriptLoader.currentLoops;
+		List<Loop> loops = ScriptLoader.getCurrentLoops();
 		if (loops.isEmpty()) {
 			Skript.error("Continue may only be used in loops");
 			return false;
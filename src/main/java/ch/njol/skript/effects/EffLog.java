@@ -19,19 +19,13 @@
  */
 package ch.njol.skript.effects;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.io.PrintWriter;
-import java.util.HashMap;
 import java.util.logging.Level;
 
 import org.bukkit.event.Event;
 import org.eclipse.jdt.annotation.Nullable;
 
 import ch.njol.skript.Skript;
-import ch.njol.skript.SkriptConfig;
 import ch.njol.skript.doc.Description;
 import ch.njol.skript.doc.Examples;
 import ch.njol.skript.doc.Name;
@@ -40,9 +34,8 @@ import ch.njol.skript.lang.Effect;
 import ch.njol.skript.lang.Expression;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
 import ch.njol.skript.lang.Trigger;
+import ch.njol.skript.log.LogFileWriter;
 import ch.njol.skript.log.SkriptLogger;
-import ch.njol.skript.util.ExceptionUtils;
-import ch.njol.util.Closeable;
 import ch.njol.util.Kleenean;
 
 /**
@@ -61,17 +54,6 @@ public class EffLog extends Effect {
 	
 	private final static File logsFolder = new File(Skript.getInstance().getDataFolder(), "logs");
 	
-	final static HashMap<String, PrintWriter> writers = new HashMap<>();
-	static {
-		Skript.closeOnDisable(new Closeable() {
-			@Override
-			public void close() {
-				for (final PrintWriter pw : writers.values())
-					pw.close();
-			}
-		});
-	}
-	
 	@SuppressWarnings("null")
 	private Expression<String> messages;
 	@Nullable
@@ -85,7 +67,6 @@ public class EffLog extends Effect {
 		return true;
 	}
 	
-	@SuppressWarnings("resource")
 	@Override
 	protected void execute(final Event e) {
 		for (final String message : messages.getArray(e)) {
@@ -98,20 +79,7 @@ public class EffLog extends Effect {
 						SkriptLogger.LOGGER.log(Level.INFO, message);
 						continue;
 					}
-					PrintWriter w = writers.get(s);
-					if (w == null) {
-						final File f = new File(logsFolder, s); // REMIND what if s contains '..'?
-						try {
-							f.getParentFile().mkdirs();
-							w = new PrintWriter(new BufferedWriter(new FileWriter(f, true)));
-							writers.put(s, w);
-						} catch (final IOException ex) {
-							Skript.error("Cannot write to log file '" + s + "' (" + f.getPath() + "): " + ExceptionUtils.toString(ex));
-							return;
-						}
-					}
-					w.println("[" + SkriptConfig.formatDate(System.currentTimeMillis()) + "] " + message);
-					w.flush();
+					LogFileWriter.log(logsFolder, s, message); // REMIND what if s contains '..'?
 				}
 			} else {
 				final Trigger t = getTrigger();
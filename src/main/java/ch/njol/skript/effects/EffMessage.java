@@ -38,6 +38,7 @@ import ch.njol.skript.lang.VariableString;
 import ch.njol.skript.util.chat.BungeeConverter;
 import ch.njol.skript.util.chat.ChatMessages;
 import ch.njol.util.Kleenean;
+import net.md_5.bungee.api.chat.BaseComponent;
 
 @Name("Message")
 @Description({"Sends a message to the given player. Only styles written",
@@ -77,27 +78,41 @@ public class EffMessage extends Effect {
 
 	@Override
 	protected void execute(final Event e) {
+		final CommandSender[] receivers = recipients.getArray(e);
+		if (receivers.length == 0)
+			return;
+		boolean players = false;
+		for (CommandSender receiver : receivers)
+			players |= receiver instanceof Player;
 		for (Expression<? extends String> message : messages) {
-			for (CommandSender receiver : recipients.getArray(e)) {
-				if (receiver instanceof Player) { // Can use JSON formatting
-					if (message instanceof VariableString) { // Process formatting that is safe
-						((Player) receiver).spigot().sendMessage(BungeeConverter
-								.convert(((VariableString) message).getMessageComponents(e)));
-					} else if (message instanceof ExprColoured && ((ExprColoured) message).isUnsafeFormat()) { // Manually marked as trusted
-						for (String string : message.getArray(e)) {
-							assert string != null;
-							((Player) receiver).spigot().sendMessage(BungeeConverter
-									.convert(ChatMessages.parse(string)));
-						}
-					} else { // It is just a string, no idea if it comes from a trusted source -> don't parse anything
-						for (String string : message.getArray(e)) {
-							assert string != null;
-							assert string != null;
-							receiver.sendMessage(string);
-						}
+			// Evaluate and convert the message only once, and send the result to all receivers
+			boolean formatted = message instanceof VariableString // Process formatting that is safe
+					|| message instanceof ExprColoured && ((ExprColoured) message).isUnsafeFormat(); // Manually marked as trusted
+			BaseComponent[][] components = null;
+			String[] strings;
+			if (formatted && players) { // Can use JSON formatting
+				if (message instanceof VariableString) {
+					BaseComponent[] component = BungeeConverter.convert(((VariableString) message).getMessageComponents(e));
+					components = new BaseComponent[][] {component};
+					strings = new String[] {BaseComponent.toLegacyText(component)}; // Same values for other receivers
+				} else {
+					strings = message.getArray(e);
+					components = new BaseComponent[strings.length][];
+					for (int i = 0; i < strings.length; i++) {
+						String string = strings[i];
+						assert string != null;
+						components[i] = BungeeConverter.convert(ChatMessages.parse(string));
 					}
-				} else { // Not a player, send plain text with legacy formatting
-					for (String string : message.getArray(e)) {
+				}
+			} else { // It is just a string, no idea if it comes from a trusted source -> don't parse anything
+				strings = message.getArray(e);
+			}
+			for (CommandSender receiver : receivers) {
+				if (components != null && receiver instanceof Player) {
+					for (BaseComponent[] component : components)
+						((Player) receiver).spigot().sendMessage(component);
+				} else { // Not a player, or not formatted; send plain text with legacy formatting
+					for (String string : strings) {
 						assert string != null;
 						receiver.sendMessage(string);
 					}
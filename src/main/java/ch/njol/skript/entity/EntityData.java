@@ -24,8 +24,11 @@ import java.io.StreamCorruptedException;
 import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Chunk;
@@ -33,6 +36,7 @@ import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.entity.Ageable;
 import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
 import org.bukkit.entity.PigZombie;
 import org.bukkit.entity.Piglin;
 import org.bukkit.entity.Player;
@@ -500,8 +504,9 @@ public abstract class EntityData<E extends Entity> implements SyntaxElement, Ygg
 			worlds = Bukkit.getWorlds().toArray(new World[0]);
 		for (final World w : worlds) {
 			for (final E e : w.getEntitiesByClass(type)) {
+				final EntityType entityType = e.getType();
 				for (final EntityData<?> t : types) {
-					if (t.isInstance(e)) {
+					if (t.mayMatch(entityType) && t.isInstance(e)) {
 						list.add(e);
 						break;
 					}
@@ -517,8 +522,9 @@ public abstract class EntityData<E extends Entity> implements SyntaxElement, Ygg
 		final List<E> list = new ArrayList<>();
 		for (Chunk chunk : chunks) {
 			for (Entity entity : chunk.getEntities()) {
+				EntityType entityType = entity.getType();
 				for (EntityData<?> t : types) {
-					if (t.isInstance(entity)) {
+					if (t.mayMatch(entityType) && t.isInstance(entity)) {
 						list.add(((E) entity));
 						break;
 					}
@@ -575,6 +581,36 @@ public abstract class EntityData<E extends Entity> implements SyntaxElement, Ygg
 		return fromClass(c).getSuperType().toString(flags);
 	}
 	
+	/**
+	 * Entity types whose entities can be instances of a class, see {@link #mayMatch(EntityType)}.
+	 */
+	private final static Map<Class<?>, EnumSet<EntityType>> entityTypes = new ConcurrentHashMap<>();
+	
+	/**
+	 * Quickly checks whether entities of the given type could match this entity data. This is used to skip entities without calling
+	 * {@link #isInstance(Entity)} when searching through many of them.
+	 * <p>
+	 * Types that Bukkit doesn't know the entity class of always pass this check, as do types whose class is a supertype of this data's
+	 * type, since entities can implement a narrower interface than their type declares (e.g. tipped arrows are arrows).
+	 * 
+	 * @param type The type of an entity
+	 * @return False if entities of the given type can never be an instance of this data, true if they might be.
+	 */
+	public final boolean mayMatch(final EntityType type) {
+		final Class<? extends E> c = getType();
+		EnumSet<EntityType> types = entityTypes.get(c);
+		if (types == null) {
+			types = EnumSet.noneOf(EntityType.class);
+			for (final EntityType t : EntityType.values()) {
+				final Class<? extends Entity> entityClass = t.getEntityClass();
+				if (entityClass == null || c.isAssignableFrom(entityClass) || entityClass.isAssignableFrom(c))
+					types.add(t);
+			}
+			entityTypes.put(c, types);
+		}
+		return types.contains(type);
+	}
+	
 	@SuppressWarnings("unchecked")
 	public final boolean isInstance(final @Nullable Entity e) {
 		if (e == null)
@@ -0,0 +1,210 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.entity;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import org.eclipse.jdt.annotation.Nullable;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.SkriptConfig;
+
+/**
+ * Finds entities around a location by going through the chunks in range, rejecting entities by their {@link EntityType} before checking
+ * them against {@link EntityData entity datas}.
+ * <p>
+ * If enabled in the config, results are cached until the end of the tick, so that identical queries (e.g. the same entities around the same
+ * location from multiple triggers) only search once. Entities in a cached result may have died or moved since the search.
+ */
+public final class EntityQuery {
+	
+	private EntityQuery() {}
+	
+	/**
+	 * If more chunks than this are in range, all entities of the world are checked instead.
+	 */
+	private final static int MAX_CHUNKS = 1024;
+	
+	/**
+	 * Cached results of this tick. Only accessed from the main thread.
+	 */
+	private final static Map<Query, Entity[]> cache = new HashMap<>();
+	
+	private static boolean clearScheduled = false;
+	
+	private final static class Query {
+		
+		private final EntityData<?>[] types;
+		private final World world;
+		private final double x, y, z, radius;
+		
+		Query(final EntityData<?>[] types, final Location center, final double radius) {
+			this.types = types;
+			final World world = center.getWorld();
+			assert world != null;
+			this.world = world;
+			x = center.getX();
+			y = center.getY();
+			z = center.getZ();
+			this.radius = radius;
+		}
+		
+		@Override
+		public boolean equals(final @Nullable Object obj) {
+			if (!(obj instanceof Query))
+				return false;
+			final Query other = (Query) obj;
+			return world.equals(other.world) && x == other.x && y == other.y && z == other.z && radius == other.radius
+					&& Arrays.equals(types, other.types);
+		}
+		
+		@Override
+		public int hashCode() {
+			int result = world.hashCode();
+			result = 31 * result + Double.hashCode(x);
+			result = 31 * result + Double.hashCode(y);
+			result = 31 * result + Double.hashCode(z);
+			result = 31 * result + Double.hashCode(radius);
+			return 31 * result + Arrays.hashCode(types);
+		}
+	}
+	
+	/**
+	 * Gets all entities within the given radius of a location that match any of the given entity datas.
+	 * 
+	 * @param types Entity datas to match
+	 * @param type Component type of the returned array
+	 * @param center The center of the sphere to search in
+	 * @param radius Radius of the sphere
+	 * @return All matching entities whose location is in the sphere
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E extends Entity> E[] getInRadius(final EntityData<?>[] types, final Class<E> type, final Location center, final double radius) {
+		final Entity[] found = find(types, center, radius);
+		final E[] result = (E[]) Array.newInstance(type, found.length);
+		System.arraycopy(found, 0, result, 0, found.length);
+		return result;
+	}
+	
+	/**
+	 * Counts entities within the given radius of a location that match any of the given entity datas, without building a list of them
+	 * unless the result is cached.
+	 * 
+	 * @param types Entity datas to match
+	 * @param center The center of the sphere to search in
+	 * @param radius Radius of the sphere
+	 * @return The number of matching entities whose location is in the sphere
+	 */
+	public static int countInRadius(final EntityData<?>[] types, final Location center, final double radius) {
+		if (useCache())
+			return find(types, center, radius).length;
+		final int[] count = {0};
+		search(types, center, radius, e -> count[0]++);
+		return count[0];
+	}
+	
+	private static boolean useCache() {
+		return SkriptConfig.cacheEntityQueries.value() && Bukkit.isPrimaryThread();
+	}
+	
+	private static Entity[] find(final EntityData<?>[] types, final Location center, final double radius) {
+		if (!useCache())
+			return search(types, center, radius);
+		final Query query = new Query(types, center, radius);
+		Entity[] found = cache.get(query);
+		if (found == null) {
+			found = search(types, center, radius);
+			cache.put(query, found);
+			if (!clearScheduled) {
+				clearScheduled = true;
+				Bukkit.getScheduler().scheduleSyncDelayedTask(Skript.getInstance(), () -> {
+					cache.clear();
+					clearScheduled = false;
+				});
+			}
+		}
+		return found;
+	}
+	
+	private static Entity[] search(final EntityData<?>[] types, final Location center, final double radius) {
+		final List<Entity> found = new ArrayList<>();
+		search(types, center, radius, found::add);
+		return found.toArray(new Entity[0]);
+	}
+	
+	private static void search(final EntityData<?>[] types, final Location center, final double radius, final Consumer<Entity> action) {
+		final World world = center.getWorld();
+		if (world == null || types.length == 0 || !(radius >= 0))
+			return;
+		final double cx = center.getX(), cy = center.getY(), cz = center.getZ();
+		final double radiusSquared = radius * radius * Skript.EPSILON_MULT;
+		final Location location = new Location(world, 0, 0, 0); // Reused for all entities
+		
+		final int minX = floor(cx - radius) >> 4, maxX = floor(cx + radius) >> 4;
+		final int minZ = floor(cz - radius) >> 4, maxZ = floor(cz + radius) >> 4;
+		if ((long) (maxX - minX + 1) * (maxZ - minZ + 1) > MAX_CHUNKS) {
+			for (final Entity e : world.getEntities())
+				check(types, e, location, cx, cy, cz, radiusSquared, action);
+			return;
+		}
+		for (int x = minX; x <= maxX; x++) {
+			// Distance from the center to the nearest point of the chunk in the x and z directions
+			final double dx = Math.max(0, Math.max((x << 4) - cx, cx - ((x + 1) << 4)));
+			for (int z = minZ; z <= maxZ; z++) {
+				final double dz = Math.max(0, Math.max((z << 4) - cz, cz - ((z + 1) << 4)));
+				if (dx * dx + dz * dz > radiusSquared || !world.isChunkLoaded(x, z))
+					continue;
+				for (final Entity e : world.getChunkAt(x, z).getEntities())
+					check(types, e, location, cx, cy, cz, radiusSquared, action);
+			}
+		}
+	}
+	
+	private static void check(final EntityData<?>[] types, final Entity e, final Location location, final double cx, final double cy, final double cz,
+			final double radiusSquared, final Consumer<Entity> action) {
+		e.getLocation(location);
+		final double dx = location.getX() - cx, dy = location.getY() - cy, dz = location.getZ() - cz;
+		if (dx * dx + dy * dy + dz * dz > radiusSquared)
+			return;
+		final EntityType entityType = e.getType();
+		for (final EntityData<?> t : types) {
+			if (t.mayMatch(entityType) && t.isInstance(e)) {
+				action.accept(e);
+				return;
+			}
+		}
+	}
+	
+	private static int floor(final double d) {
+		return (int) Math.floor(d);
+	}
+	
+}
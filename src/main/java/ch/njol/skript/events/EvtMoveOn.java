@@ -78,6 +78,8 @@ public class EvtMoveOn extends SelfRegisteringSkriptEvent { // TODO on jump
 			final Location from = e.getFrom(), to = e.getTo();
 			
 			if (!itemTypeTriggers.isEmpty()) {
+				if (isSameOnBlock(from, to))
+					return;
 				final Block block = getOnBlock(to);
 				if (block == null || block.getType() == Material.AIR)
 					return;
@@ -109,7 +111,7 @@ public class EvtMoveOn extends SelfRegisteringSkriptEvent { // TODO on jump
 	@Nullable
 	final static Block getOnBlock(final Location l) {
 		Block block = l.getWorld().getBlockAt(l.getBlockX(), (int) (Math.ceil(l.getY()) - 1), l.getBlockZ());
-		if (block.getType() == Material.AIR && Math.abs((l.getY() - l.getBlockY()) - 0.5) < Skript.EPSILON) { // Fences
+		if (block.getType() == Material.AIR && isOnFence(l)) { // Fences
 			block = l.getWorld().getBlockAt(l.getBlockX(), l.getBlockY() - 1, l.getBlockZ());
 			if (!fencePart.isOfType(block))
 				return null;
@@ -117,6 +119,19 @@ public class EvtMoveOn extends SelfRegisteringSkriptEvent { // TODO on jump
 		return block;
 	}
 	
+	/**
+	 * Checks whether {@link #getOnBlock(Location)} is the same block for both locations without looking at any blocks, which is the case
+	 * for most move events.
+	 */
+	final static boolean isSameOnBlock(final Location from, final Location to) {
+		return to.getBlockX() == from.getBlockX() && to.getBlockZ() == from.getBlockZ() && Math.ceil(to.getY()) == Math.ceil(from.getY())
+				&& isOnFence(to) == isOnFence(from) && to.getWorld().equals(from.getWorld());
+	}
+	
+	private static boolean isOnFence(final Location l) {
+		return Math.abs((l.getY() - l.getBlockY()) - 0.5) < Skript.EPSILON;
+	}
+	
 	final static int getBlockY(final double y, final Material id) {
 		if (fencePart.isOfType(id) && Math.abs((y - Math.floor(y)) - 0.5) < Skript.EPSILON)
 			return (int) Math.floor(y) - 1;
@@ -111,6 +111,8 @@ public class ExprAmount extends SimpleExpression<Integer> {
 			if (var != null)
 				return new Integer[] {getRecursiveSize((Map<String, ?>) var)}; // Should already be a Map 
 		}
+		if (expr instanceof ExprEntities)
+			return new Integer[] {((ExprEntities) expr).count(e)};
 		return new Integer[] {expr.getArray(e).length};
 	}
 	
@@ -20,16 +20,14 @@
 package ch.njol.skript.expressions;
 
 import java.lang.reflect.Array;
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Iterator;
-import java.util.List;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Player;
 import org.bukkit.event.Event;
 import org.eclipse.jdt.annotation.Nullable;
@@ -40,6 +38,7 @@ import ch.njol.skript.doc.Examples;
 import ch.njol.skript.doc.Name;
 import ch.njol.skript.doc.Since;
 import ch.njol.skript.entity.EntityData;
+import ch.njol.skript.entity.EntityQuery;
 import ch.njol.skript.lang.Expression;
 import ch.njol.skript.lang.ExpressionType;
 import ch.njol.skript.lang.Literal;
@@ -50,7 +49,7 @@ import ch.njol.skript.log.LogHandler;
 import ch.njol.skript.log.SkriptLogger;
 import ch.njol.util.Kleenean;
 import ch.njol.util.StringUtils;
-import ch.njol.util.coll.iterator.CheckedIterator;
+import ch.njol.util.coll.iterator.ArrayIterator;
 import ch.njol.util.coll.iterator.NonNullIterator;
 
 @Name("Entities")
@@ -137,16 +136,18 @@ public class ExprEntities extends SimpleExpression<Entity> {
 
 	@Override
 	@Nullable
+	@SuppressWarnings("null")
 	protected Entity[] get(Event e) {
 		if (isUsingRadius) {
-			Iterator<? extends Entity> iter = iterator(e);
-			if (iter == null || !iter.hasNext())
-				return new Entity[0];
-
-			List<Entity> l = new ArrayList<>();
-			while (iter.hasNext())
-				l.add(iter.next());
-			return l.toArray((Entity[]) Array.newInstance(returnType, l.size()));
+			assert center != null;
+			Location l = center.getSingle(e);
+			if (l == null)
+				return (Entity[]) Array.newInstance(returnType, 0);
+			assert radius != null;
+			Number n = radius.getSingle(e);
+			if (n == null)
+				return (Entity[]) Array.newInstance(returnType, 0);
+			return EntityQuery.getInRadius(types.getAll(e), returnType, l, n.doubleValue());
 		} else {
 			if (chunks != null) {
 				return EntityData.getAll(types.getArray(e), returnType, chunks.getArray(e));
@@ -156,33 +157,42 @@ public class ExprEntities extends SimpleExpression<Entity> {
 		}
 	}
 
-	@Override
-	@Nullable
+	/**
+	 * Counts the entities this expression would return, without building an array of them if possible.
+	 * 
+	 * @param e The event
+	 * @return The number of entities
+	 */
 	@SuppressWarnings("null")
-	public Iterator<? extends Entity> iterator(Event e) {
+	public int count(Event e) {
 		if (isUsingRadius) {
 			assert center != null;
 			Location l = center.getSingle(e);
 			if (l == null)
-				return null;
+				return 0;
 			assert radius != null;
 			Number n = radius.getSingle(e);
 			if (n == null)
-				return null;
-			double d = n.doubleValue();
-
-			Collection<Entity> es = l.getWorld().getNearbyEntities(l, d, d, d);
-			double radiusSquared = d * d * Skript.EPSILON_MULT;
-			EntityData<?>[] ts = types.getAll(e);
-			return new CheckedIterator<>(es.iterator(), e1 -> {
-					if (e1 == null || e1.getLocation().distanceSquared(l) > radiusSquared)
-						return false;
-					for (EntityData<?> t : ts) {
-						if (t.isInstance(e1))
-							return true;
-					}
-					return false;
-				});
+				return 0;
+			return EntityQuery.countInRadius(types.getAll(e), l, n.doubleValue());
+		} else if (chunks != null || worlds == null && returnType == Player.class) {
+			return getArray(e).length;
+		}
+		Iterator<? extends Entity> iter = iterator(e);
+		int count = 0;
+		while (iter != null && iter.hasNext()) {
+			iter.next();
+			count++;
+		}
+		return count;
+	}
+
+	@Override
+	@Nullable
+	@SuppressWarnings("null")
+	public Iterator<? extends Entity> iterator(Event e) {
+		if (isUsingRadius) {
+			return new ArrayIterator<>(getArray(e));
 		} else {
 			if (worlds == null && returnType == Player.class)
 				return super.iterator(e);
@@ -206,8 +216,9 @@ public class ExprEntities extends SimpleExpression<Entity> {
 							}
 							while (curIter.hasNext()) {
 								Entity current = curIter.next();
+								EntityType entityType = current.getType();
 								for (EntityData<?> t : ts) {
-									if (t.isInstance(current))
+									if (t.mayMatch(entityType) && t.isInstance(current))
 										return current;
 								}
 							}
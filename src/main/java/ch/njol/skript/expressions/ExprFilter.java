@@ -56,7 +56,7 @@ import ch.njol.util.coll.iterator.ArrayIterator;
 @SuppressWarnings({"null", "unchecked"})
 public class ExprFilter extends SimpleExpression<Object> {
 
-	private static ExprFilter parsing;
+	private static final ThreadLocal<ExprFilter> parsing = new ThreadLocal<>();
 
 	static {
 		Skript.registerExpression(ExprFilter.class, Object.class, ExpressionType.COMBINED,
@@ -70,18 +70,18 @@ public class ExprFilter extends SimpleExpression<Object> {
 	private Expression<Object> objects;
 
 	public static ExprFilter getParsing() {
-		return parsing;
+		return parsing.get();
 	}
 
 	@Override
 	public boolean init(Expression<?>[] exprs, int matchedPattern, Kleenean isDelayed, SkriptParser.ParseResult parseResult) {
 		try {
-			parsing = this;
+			parsing.set(this);
 			objects = LiteralUtils.defendExpression(exprs[0]);
 			rawCond = parseResult.regexes.get(0).group();
 			condition = Condition.parse(rawCond, "Can't understand this condition: " + rawCond);
 		} finally {
-			parsing = null;
+			parsing.remove();
 		}
 		return condition != null && LiteralUtils.canInitSafely(objects);
 	}
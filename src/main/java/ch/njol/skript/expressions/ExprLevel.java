@@ -82,11 +82,11 @@ public class ExprLevel extends SimplePropertyExpression<Player, Integer> {
 	public Class<?>[] acceptChange(final ChangeMode mode) {
 		if (mode == ChangeMode.REMOVE_ALL)
 			return null;
-		if (ScriptLoader.isCurrentEvent(PlayerRespawnEvent.class) && !ScriptLoader.hasDelayBefore.isTrue()) {
+		if (ScriptLoader.isCurrentEvent(PlayerRespawnEvent.class) && !ScriptLoader.getHasDelayBefore().isTrue()) {
 			Skript.error("Cannot change a player's level in a respawn event. Add a delay of 1 tick or change the 'new level' in a death event.");
 			return null;
 		}
-		if (ScriptLoader.isCurrentEvent(PlayerDeathEvent.class) && getTime() == 0 && getExpr().isDefault() && !ScriptLoader.hasDelayBefore.isTrue()) {
+		if (ScriptLoader.isCurrentEvent(PlayerDeathEvent.class) && getTime() == 0 && getExpr().isDefault() && !ScriptLoader.getHasDelayBefore().isTrue()) {
 			Skript.warning("Changing the player's level in a death event will change the player's level before he dies. " +
 					"Use either 'past level of player' or 'new level of player' to clearly state whether to change the level before or after he dies.");
 		}
@@ -98,8 +98,8 @@ public class ExprLoopValue extends SimpleExpression<Object> {
 		Loop loop = null;
 		
 		@SuppressWarnings("null")
-		boolean b = ScriptOptions.getInstance().usesNewLoops(ScriptLoader.currentScript.getFile());
-		for (final Loop l : ScriptLoader.currentLoops) {
+		boolean b = ScriptOptions.getInstance().usesNewLoops(ScriptLoader.getCurrentScript().getFile());
+		for (final Loop l : ScriptLoader.getCurrentLoops()) {
 			if ((c != null && c.isAssignableFrom(l.getLoopedExpression().getReturnType())) || (b ? "value".equals(s) : false) || l.getLoopedExpression().isLoopOf(s)) {
 				if (j < i) {
 					j++;
@@ -82,7 +82,7 @@ public class ExprMaxPlayers extends SimpleExpression<Number> {
 	@Nullable
 	public Class<?>[] acceptChange(ChangeMode mode) {
 		if (!isReal) {
-			if (ScriptLoader.hasDelayBefore.isTrue()) {
+			if (ScriptLoader.getHasDelayBefore().isTrue()) {
 				Skript.error("Can't change the fake max players count anymore after the server list ping event has already passed");
 				return null;
 			}
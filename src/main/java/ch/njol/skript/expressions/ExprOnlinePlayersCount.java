@@ -90,7 +90,7 @@ public class ExprOnlinePlayersCount extends SimpleExpression<Number> {
 	@Nullable
 	public Class<?>[] acceptChange(ChangeMode mode) {
 		if (!isReal) {
-			if (ScriptLoader.hasDelayBefore.isTrue()) {
+			if (ScriptLoader.getHasDelayBefore().isTrue()) {
 				Skript.error("Can't change the shown online players count anymore after the server list ping event has already passed");
 				return null;
 			}
@@ -88,7 +88,7 @@ public class ExprProtocolVersion extends SimpleExpression<Number> {
 	@Override
 	@Nullable
 	public Class<?>[] acceptChange(ChangeMode mode) {
-		if (ScriptLoader.hasDelayBefore.isTrue()) {
+		if (ScriptLoader.getHasDelayBefore().isTrue()) {
 			Skript.error("Can't change the protocol version anymore after the server list ping event has already passed");
 			return null;
 		}
@@ -79,7 +79,7 @@ public class ExprVersionString extends SimpleExpression<String> {
 	@Override
 	@Nullable
 	public Class<?>[] acceptChange(ChangeMode mode) {
-		if (ScriptLoader.hasDelayBefore.isTrue()) {
+		if (ScriptLoader.getHasDelayBefore().isTrue()) {
 			Skript.error("Can't change the version string anymore after the server list ping event has already passed");
 			return null;
 		}
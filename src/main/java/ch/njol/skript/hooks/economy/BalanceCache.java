@@ -0,0 +1,275 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.hooks.economy;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.OfflinePlayer;
+
+import ch.njol.util.Closeable;
+
+/**
+ * Caches balances of an economy and writes changes to it in the background.
+ * <p>
+ * Balances are read from the economy when they are first needed and after they have been cached for a given time. Changes are applied
+ * to the cached balance at once and summed up until the writer gets to them, so that many small changes of a player's balance only cost
+ * one call to the economy. The writer should run tasks one after another, so that changes are written in the order they were made.
+ * Setting a balance is not delayed, as it must not depend on a cached balance, see {@link #set(OfflinePlayer, double, long)}.
+ * <p>
+ * Changes made by other plugins are only seen once a balance is read again, see {@link #invalidate(OfflinePlayer)}.
+ */
+public final class BalanceCache implements Closeable {
+	
+	/**
+	 * The economy behind a cache. May be called from the writer's thread.
+	 */
+	public static interface Store {
+		
+		double getBalance(OfflinePlayer p);
+		
+		/**
+		 * @return Whether the money was deposited
+		 */
+		boolean deposit(OfflinePlayer p, double amount);
+		
+		/**
+		 * @return Whether the money was withdrawn
+		 */
+		boolean withdraw(OfflinePlayer p, double amount);
+		
+	}
+	
+	private final static class Entry {
+		
+		final OfflinePlayer player;
+		
+		/**
+		 * Held while the economy is called for this player, so that a balance is never read while a change is half written.
+		 */
+		final Object storeLock = new Object();
+		
+		// the following fields are guarded by the entry itself
+		
+		/**
+		 * Cached balance including all changes, only valid if {@link #known} is true.
+		 */
+		double balance;
+		boolean known = false;
+		
+		/**
+		 * When the balance was read from the economy, in milliseconds.
+		 */
+		long readAt;
+		
+		/**
+		 * Changes that the writer has not picked up yet.
+		 */
+		double unflushed = 0;
+		
+		/**
+		 * Changes that the writer is currently writing.
+		 */
+		double inFlight = 0;
+		
+		/**
+		 * Whether a write task for this entry has been submitted but not started yet.
+		 */
+		boolean queued = false;
+		
+		/**
+		 * Increased whenever the balance is set, so that the writer can drop changes made before.
+		 */
+		int generation = 0;
+		
+		Entry(final OfflinePlayer player) {
+			this.player = player;
+		}
+	}
+	
+	private final Store store;
+	private final Executor writer;
+	
+	private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+	
+	/**
+	 * @param store The economy
+	 * @param writer Runs the tasks that write changes. If this is an {@link ExecutorService}, it is shut down when the cache is closed.
+	 */
+	public BalanceCache(final Store store, final Executor writer) {
+		this.store = store;
+		this.writer = writer;
+	}
+	
+	private Entry entry(final OfflinePlayer p) {
+		return entries.computeIfAbsent(p.getUniqueId(), id -> new Entry(p));
+	}
+	
+	/**
+	 * Gets the balance of a player, including changes that have not been written yet.
+	 * 
+	 * @param now Current time in milliseconds
+	 * @param lifetime How long a balance may be cached, in milliseconds
+	 */
+	public double getBalance(final OfflinePlayer p, final long now, final long lifetime) {
+		final Entry e = entry(p);
+		synchronized (e) {
+			if (e.known && now - e.readAt < lifetime)
+				return e.balance;
+		}
+		synchronized (e.storeLock) {
+			final double balance = store.getBalance(e.player);
+			synchronized (e) {
+				e.balance = balance + e.inFlight + e.unflushed;
+				e.known = true;
+				e.readAt = now;
+				return e.balance;
+			}
+		}
+	}
+	
+	/**
+	 * Changes the balance of a player. The cached balance changes at once, while the economy is changed later by the writer.
+	 * 
+	 * @param amount Amount to deposit, or to withdraw if negative
+	 */
+	public void add(final OfflinePlayer p, final double amount) {
+		if (amount == 0)
+			return;
+		final Entry e = entry(p);
+		synchronized (e) {
+			e.balance += amount;
+			e.unflushed += amount;
+			if (e.queued)
+				return;
+			e.queued = true;
+		}
+		writer.execute(() -> write(e));
+	}
+	
+	private void write(final Entry e) {
+		final double amount;
+		final int generation;
+		synchronized (e) {
+			amount = e.unflushed;
+			e.unflushed = 0;
+			e.queued = false;
+			e.inFlight += amount;
+			generation = e.generation;
+		}
+		if (amount == 0)
+			return;
+		synchronized (e.storeLock) {
+			boolean success = false;
+			try {
+				synchronized (e) {
+					if (e.generation != generation) { // The balance has been set since this change was made
+						e.inFlight -= amount;
+						return;
+					}
+				}
+				success = amount > 0 ? store.deposit(e.player, amount) : store.withdraw(e.player, -amount);
+			} finally {
+				synchronized (e) {
+					e.inFlight -= amount;
+					if (!success) // e.g. not enough money, the cached balance is wrong now
+						e.known = false;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Sets the balance of a player in the economy right away. Changes that have not been written yet are dropped, as the new balance
+	 * replaces them.
+	 * 
+	 * @param now Current time in milliseconds
+	 */
+	public void set(final OfflinePlayer p, final double amount, final long now) {
+		final Entry e = entry(p);
+		synchronized (e.storeLock) {
+			synchronized (e) {
+				e.unflushed = 0;
+				e.generation++;
+			}
+			final double balance = store.getBalance(e.player);
+			boolean success = true;
+			if (balance < amount)
+				success = store.deposit(e.player, amount - balance);
+			else if (balance > amount)
+				success = store.withdraw(e.player, balance - amount);
+			synchronized (e) {
+				e.balance = amount + e.unflushed;
+				e.known = success;
+				e.readAt = now;
+			}
+		}
+	}
+	
+	/**
+	 * Makes the next request for the balance of a player read it from the economy. Changes that have not been written yet are kept.
+	 */
+	public void invalidate(final OfflinePlayer p) {
+		final Entry e = entries.get(p.getUniqueId());
+		if (e == null)
+			return;
+		synchronized (e) {
+			e.known = false;
+		}
+	}
+	
+	/**
+	 * Writes the changes of a player's balance and forgets the player afterwards, e.g. when the player leaves the server.
+	 */
+	public void release(final OfflinePlayer p) {
+		final UUID id = p.getUniqueId();
+		final Entry e = entries.get(id);
+		if (e == null)
+			return;
+		writer.execute(() -> {
+			write(e);
+			synchronized (e) {
+				if (!e.queued && e.unflushed == 0 && e.inFlight == 0)
+					entries.remove(id, e);
+			}
+		});
+	}
+	
+	/**
+	 * Waits until all changes have been written if the writer is an {@link ExecutorService}, and shuts it down.
+	 */
+	@Override
+	public void close() {
+		if (!(writer instanceof ExecutorService))
+			return;
+		final ExecutorService service = (ExecutorService) writer;
+		service.shutdown();
+		try {
+			service.awaitTermination(30, TimeUnit.SECONDS);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+}
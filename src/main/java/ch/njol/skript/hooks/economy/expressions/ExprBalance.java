@@ -19,10 +19,18 @@
  */
 package ch.njol.skript.hooks.economy.expressions;
 
+import java.util.concurrent.Executors;
+
+import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.eclipse.jdt.annotation.Nullable;
 
+import ch.njol.skript.Skript;
+import ch.njol.skript.SkriptConfig;
 import ch.njol.skript.classes.Changer.ChangeMode;
 import ch.njol.skript.doc.Description;
 import ch.njol.skript.doc.Examples;
@@ -31,6 +39,7 @@ import ch.njol.skript.doc.RequiredPlugins;
 import ch.njol.skript.doc.Since;
 import ch.njol.skript.expressions.base.SimplePropertyExpression;
 import ch.njol.skript.hooks.VaultHook;
+import ch.njol.skript.hooks.economy.BalanceCache;
 import ch.njol.skript.hooks.economy.classes.Money;
 
 /**
@@ -48,16 +57,58 @@ public class ExprBalance extends SimplePropertyExpression<OfflinePlayer, Money>
 		register(ExprBalance.class, Money.class, "(money|balance|[bank] account)", "players");
 	}
 	
+	/**
+	 * Used if a balance cache time is set in the config.
+	 */
+	private final static BalanceCache balances = new BalanceCache(new BalanceCache.Store() {
+		@Override
+		public double getBalance(final OfflinePlayer p) {
+			return ExprBalance.getBalance(p);
+		}
+		
+		@SuppressWarnings("deprecation")
+		@Override
+		public boolean deposit(final OfflinePlayer p, final double amount) {
+			return VaultHook.economy.depositPlayer(p.getName(), amount).transactionSuccess();
+		}
+		
+		@SuppressWarnings("deprecation")
+		@Override
+		public boolean withdraw(final OfflinePlayer p, final double amount) {
+			return VaultHook.economy.withdrawPlayer(p.getName(), amount).transactionSuccess();
+		}
+	}, Executors.newSingleThreadExecutor(r -> Skript.newThread(r, "Skript balance writer")));
+	
+	static {
+		Skript.closeOnDisable(balances);
+		Bukkit.getPluginManager().registerEvent(PlayerQuitEvent.class, new Listener() {}, EventPriority.MONITOR,
+				(l, e) -> balances.release(((PlayerQuitEvent) e).getPlayer()), Skript.getInstance(), true);
+	}
+	
 	@SuppressWarnings("deprecation")
-	@Override
-	public Money convert(final OfflinePlayer p) {
+	static double getBalance(final OfflinePlayer p) {
 		try {
-			return new Money(VaultHook.economy.getBalance(p));
+			return VaultHook.economy.getBalance(p);
 		}catch(Exception e){
-			return new Money(VaultHook.economy.getBalance(p.getName()));
+			return VaultHook.economy.getBalance(p.getName());
 		}
 	}
 	
+	/**
+	 * @return How long balances may be cached in milliseconds, or 0 if they must not be cached
+	 */
+	private static long getCacheTime() {
+		return SkriptConfig.balanceCacheTime.value().getMilliSeconds();
+	}
+	
+	@Override
+	public Money convert(final OfflinePlayer p) {
+		final long cacheTime = getCacheTime();
+		if (cacheTime > 0)
+			return new Money(balances.getBalance(p, System.currentTimeMillis(), cacheTime));
+		return new Money(getBalance(p));
+	}
+	
 	@Override
 	public Class<? extends Money> getReturnType() {
 		return Money.class;
@@ -81,6 +132,19 @@ public class ExprBalance extends SimplePropertyExpression<OfflinePlayer, Money>
 	public void change(final Event e, final @Nullable Object[] delta, final ChangeMode mode) throws UnsupportedOperationException {
 		assert mode != ChangeMode.REMOVE_ALL;
 		
+		final long cacheTime = getCacheTime();
+		if (cacheTime > 0) {
+			final double m = delta == null ? 0 : delta[0] instanceof Number ? ((Number) delta[0]).doubleValue() : ((Money) delta[0]).getAmount();
+			final long now = System.currentTimeMillis();
+			for (final OfflinePlayer p : getExpr().getArray(e)) {
+				if (delta == null || mode == ChangeMode.SET) // Must not depend on a possibly outdated cached balance
+					balances.set(p, m, now);
+				else
+					balances.add(p, mode == ChangeMode.REMOVE ? -m : m);
+			}
+			return;
+		}
+		
 		if (delta == null) {
 			for (final OfflinePlayer p : getExpr().getArray(e))
 				VaultHook.economy.withdrawPlayer(p.getName(), VaultHook.economy.getBalance(p.getName()));
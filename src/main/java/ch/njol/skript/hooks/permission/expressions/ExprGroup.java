@@ -31,6 +31,7 @@ import ch.njol.skript.hooks.VaultHook;
 import ch.njol.skript.lang.Expression;
 import ch.njol.skript.lang.SkriptParser;
 import ch.njol.skript.lang.util.SimpleExpression;
+import ch.njol.skript.util.PermissionCache;
 import ch.njol.util.Kleenean;
 import net.milkbowl.vault.permission.Permission;
 import org.bukkit.OfflinePlayer;
@@ -124,6 +125,7 @@ public class ExprGroup extends SimpleExpression<String> {
 						}
 					}
 			}
+			PermissionCache.getShared().invalidate(player);
 		}
 	}
 
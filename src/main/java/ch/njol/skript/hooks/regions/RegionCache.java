@@ -0,0 +1,219 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.hooks.regions;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Remembers the regions and build permissions of a {@link RegionsPlugin} at block positions, grouped by chunk.
+ * <p>
+ * Regions plugins don't tell when regions are created, moved or removed, so cached results expire after a given lifetime. A lifetime of 0
+ * means that results are kept until {@link #clear()} is called. Not thread safe.
+ * 
+ * @param <R> Type of regions
+ */
+final class RegionCache<R> {
+	
+	/**
+	 * If more chunks than this are cached, expired chunks are removed before adding another one.
+	 */
+	private final static int MAX_CHUNKS = 4096;
+	
+	private final static class ChunkKey {
+		
+		private final World world;
+		private final int x, z;
+		
+		ChunkKey(final World world, final int x, final int z) {
+			this.world = world;
+			this.x = x;
+			this.z = z;
+		}
+		
+		@Override
+		public boolean equals(final @Nullable Object obj) {
+			if (!(obj instanceof ChunkKey))
+				return false;
+			final ChunkKey other = (ChunkKey) obj;
+			return x == other.x && z == other.z && world.equals(other.world);
+		}
+		
+		@Override
+		public int hashCode() {
+			return 31 * (31 * world.hashCode() + x) + z;
+		}
+	}
+	
+	/**
+	 * Cached results of one chunk. Keys are positions in the chunk, see {@link RegionCache#index(Location)}.
+	 */
+	private final static class ChunkEntry<R> {
+		
+		/**
+		 * When the results of this chunk expire, in milliseconds.
+		 */
+		final long expires;
+		
+		final Map<Integer, Collection<? extends R>> regions = new HashMap<>();
+		
+		@Nullable
+		Map<Integer, Map<UUID, Boolean>> canBuild;
+		
+		ChunkEntry(final long expires) {
+			this.expires = expires;
+		}
+	}
+	
+	private final Map<ChunkKey, ChunkEntry<R>> chunks = new HashMap<>();
+	
+	private long hits, misses;
+	
+	/**
+	 * Gets the regions at a location, looking them up if they are not cached.
+	 * 
+	 * @param lookup Looks up the regions at a location
+	 * @param now Current time in milliseconds
+	 * @param lifetime How long a result is kept, in milliseconds
+	 * @return The regions at the location. This collection must not be modified.
+	 */
+	Collection<? extends R> getRegionsAt(final Location l, final Function<Location, ? extends Collection<? extends R>> lookup, final long now,
+			final long lifetime) {
+		final ChunkEntry<R> chunk = getChunk(l, now, lifetime);
+		if (chunk == null) {
+			misses++;
+			return lookup.apply(l);
+		}
+		final Integer index = index(l);
+		Collection<? extends R> regions = chunk.regions.get(index);
+		if (regions != null) {
+			hits++;
+			return regions;
+		}
+		misses++;
+		regions = Collections.unmodifiableList(new ArrayList<>(lookup.apply(l)));
+		chunk.regions.put(index, regions);
+		return regions;
+	}
+	
+	/**
+	 * Checks whether a player can build at a location, asking the plugin if this is not cached.
+	 * 
+	 * @param lookup Checks whether a player can build at a location
+	 * @param now Current time in milliseconds
+	 * @param lifetime How long a result is kept, in milliseconds
+	 */
+	boolean canBuild(final Player p, final Location l, final BiPredicate<Player, Location> lookup, final long now, final long lifetime) {
+		final ChunkEntry<R> chunk = getChunk(l, now, lifetime);
+		if (chunk == null) {
+			misses++;
+			return lookup.test(p, l);
+		}
+		Map<Integer, Map<UUID, Boolean>> canBuild = chunk.canBuild;
+		if (canBuild == null)
+			chunk.canBuild = canBuild = new HashMap<>();
+		final Integer index = index(l);
+		Map<UUID, Boolean> players = canBuild.get(index);
+		if (players == null)
+			canBuild.put(index, players = new HashMap<>());
+		final UUID id = p.getUniqueId();
+		final Boolean result = players.get(id);
+		if (result != null) {
+			hits++;
+			return result;
+		}
+		misses++;
+		final boolean b = lookup.test(p, l);
+		players.put(id, b);
+		return b;
+	}
+	
+	/**
+	 * Gets the cached results of the chunk of a location, creating an empty entry if there is none.
+	 * 
+	 * @return The entry, or null if the location has no world
+	 */
+	@Nullable
+	private ChunkEntry<R> getChunk(final Location l, final long now, final long lifetime) {
+		final World world = l.getWorld();
+		if (world == null)
+			return null;
+		final ChunkKey key = new ChunkKey(world, l.getBlockX() >> 4, l.getBlockZ() >> 4);
+		ChunkEntry<R> chunk = chunks.get(key);
+		if (chunk != null && chunk.expires <= now) {
+			chunks.remove(key);
+			chunk = null;
+		}
+		if (chunk == null) {
+			if (chunks.size() >= MAX_CHUNKS)
+				removeExpired(now);
+			chunks.put(key, chunk = new ChunkEntry<>(lifetime == 0 ? Long.MAX_VALUE : now + lifetime));
+		}
+		return chunk;
+	}
+	
+	private void removeExpired(final long now) {
+		final Iterator<ChunkEntry<R>> iter = chunks.values().iterator();
+		while (iter.hasNext()) {
+			if (iter.next().expires <= now)
+				iter.remove();
+		}
+		if (chunks.size() >= MAX_CHUNKS)
+			chunks.clear();
+	}
+	
+	void clear() {
+		chunks.clear();
+	}
+	
+	/**
+	 * @return How many lookups were answered from the cache
+	 */
+	long getHits() {
+		return hits;
+	}
+	
+	/**
+	 * @return How many lookups had to ask the regions plugin
+	 */
+	long getMisses() {
+		return misses;
+	}
+	
+	/**
+	 * Position of a block in its chunk.
+	 */
+	private static Integer index(final Location l) {
+		return l.getBlockY() << 8 | (l.getBlockX() & 15) << 4 | l.getBlockZ() & 15;
+	}
+	
+}
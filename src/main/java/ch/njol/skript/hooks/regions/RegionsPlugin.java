@@ -22,10 +22,14 @@ package ch.njol.skript.hooks.regions;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.entity.Player;
@@ -33,6 +37,7 @@ import org.bukkit.plugin.Plugin;
 import org.eclipse.jdt.annotation.Nullable;
 
 import ch.njol.skript.Skript;
+import ch.njol.skript.SkriptConfig;
 import ch.njol.skript.hooks.Hook;
 import ch.njol.skript.hooks.regions.classes.Region;
 import ch.njol.skript.variables.Variables;
@@ -48,6 +53,13 @@ public abstract class RegionsPlugin<P extends Plugin> extends Hook<P> {
 	
 	public static Collection<RegionsPlugin<?>> plugins = new ArrayList<>(2);
 	
+	/**
+	 * Results of this plugin, only used on the main thread.
+	 */
+	private final RegionCache<Region> cache = new RegionCache<>();
+	
+	private static boolean clearScheduled = false;
+	
 	static {
 		Variables.yggdrasil.registerClassResolver(new ClassResolver() {
 			@Override
@@ -78,9 +90,14 @@ public abstract class RegionsPlugin<P extends Plugin> extends Hook<P> {
 	
 	public abstract boolean canBuild_i(Player p, Location l);
 	
+	/**
+	 * Checks whether a player can build at a location in all hooked plugins. Results are cached for each block, see {@link #clearCache()}.
+	 */
 	public static boolean canBuild(final Player p, final Location l) {
+		final boolean useCache = Bukkit.isPrimaryThread();
+		final long now = System.currentTimeMillis(), lifetime = useCache ? getCacheLifetime() : 0;
 		for (final RegionsPlugin<?> pl : plugins) {
-			if (!pl.canBuild_i(p, l))
+			if (!(useCache ? pl.cache.canBuild(p, l, pl::canBuild_i, now, lifetime) : pl.canBuild_i(p, l)))
 				return false;
 		}
 		return true;
@@ -88,20 +105,96 @@ public abstract class RegionsPlugin<P extends Plugin> extends Hook<P> {
 	
 	public abstract Collection<? extends Region> getRegionsAt_i(Location l);
 	
+	/**
+	 * Gets the regions of all hooked plugins at a location. Regions are cached for each block, see {@link #clearCache()}.
+	 */
 	public static Set<? extends Region> getRegionsAt(final Location l) {
 		final Set<Region> r = new HashSet<>();
+		final boolean useCache = Bukkit.isPrimaryThread();
+		addRegionsAt(l, r, useCache, null, useCache ? getCacheLifetime() : 0);
+		return r;
+	}
+	
+	/**
+	 * Gets the regions of all hooked plugins at many locations. Each block is only looked up once, even if the shared cache can't be used
+	 * because this is not called from the main thread.
+	 * 
+	 * @return The regions at each location, in the order of the given locations
+	 */
+	public static List<Set<? extends Region>> getRegionsAt(final Collection<? extends Location> locations) {
+		final List<Set<? extends Region>> result = new ArrayList<>(locations.size());
+		final boolean useCache = Bukkit.isPrimaryThread();
+		final Map<RegionsPlugin<?>, RegionCache<Region>> caches = useCache ? null : new HashMap<>();
+		final long lifetime = useCache ? getCacheLifetime() : 0;
+		for (final Location l : locations) {
+			final Set<Region> r = new HashSet<>();
+			addRegionsAt(l, r, useCache, caches, lifetime);
+			result.add(r);
+		}
+		return result;
+	}
+	
+	/**
+	 * @param useCache Whether to use the shared caches, which is only allowed on the main thread
+	 * @param caches Caches to use instead of the shared ones, or null to use none
+	 * @param lifetime How long looked up regions are cached
+	 */
+	private static void addRegionsAt(final Location l, final Set<Region> r, final boolean useCache,
+			final @Nullable Map<RegionsPlugin<?>, RegionCache<Region>> caches, final long lifetime) {
+		final long now = System.currentTimeMillis();
 		Iterator<RegionsPlugin<?>> it = plugins.iterator();
 		while (it.hasNext()) {
 			RegionsPlugin<?> pl = it.next();
 			try {
-				r.addAll(pl.getRegionsAt_i(l));
+				final RegionCache<Region> cache = useCache ? pl.cache : caches != null ? caches.computeIfAbsent(pl, k -> new RegionCache<>()) : null;
+				r.addAll(cache == null ? pl.getRegionsAt_i(l) : cache.getRegionsAt(l, pl::getRegionsAt_i, now, lifetime));
 			} catch (Throwable e) { // Unstable WorldGuard API
 				Skript.error(pl.getName() + " hook crashed and was removed to prevent future errors.");
 				e.printStackTrace();
 				it.remove();
 			}
 		}
-		return r;
+	}
+	
+	/**
+	 * Gets how long results may be cached, making sure that they are cleared at the end of the tick if no time is set in the config. Must
+	 * only be called from the main thread.
+	 * 
+	 * @return The lifetime of cached results in milliseconds, or 0 if they are cleared at the end of the tick
+	 */
+	private static long getCacheLifetime() {
+		final long lifetime = SkriptConfig.regionCacheTime.value().getMilliSeconds();
+		if (lifetime == 0 && !clearScheduled) {
+			clearScheduled = true;
+			Bukkit.getScheduler().scheduleSyncDelayedTask(Skript.getInstance(), () -> {
+				clearCache();
+				clearScheduled = false;
+			});
+		}
+		return lifetime;
+	}
+	
+	/**
+	 * Forgets all cached regions and build permissions. Should be called after regions or their members have changed, if scripts must see
+	 * the change before the cached results expire.
+	 */
+	public static void clearCache() {
+		for (final RegionsPlugin<?> pl : plugins)
+			pl.cache.clear();
+	}
+	
+	/**
+	 * @return How many region and build permission lookups of this plugin were answered from the cache
+	 */
+	public final long getCacheHits() {
+		return cache.getHits();
+	}
+	
+	/**
+	 * @return How many region and build permission lookups had to ask this plugin
+	 */
+	public final long getCacheMisses() {
+		return cache.getMisses();
 	}
 	
 	@Nullable
@@ -139,6 +139,14 @@ public class EvtRegionBorder extends SelfRegisteringSkriptEvent {
 		me.setCancelled(e.isCancelled());
 	}
 	
+	/**
+	 * Regions plugins only work with block positions, so moving inside a block can't enter or leave a region.
+	 */
+	static boolean isSameBlock(final Location l1, final Location l2) {
+		return l1.getBlockX() == l2.getBlockX() && l1.getBlockY() == l2.getBlockY() && l1.getBlockZ() == l2.getBlockZ()
+				&& l1.getWorld() == l2.getWorld();
+	}
+	
 	// even WorldGuard doesn't have events, and this way all region plugins are supported for sure.
 	private final static EventExecutor ee = new EventExecutor() {
 		@Nullable
@@ -152,10 +160,8 @@ public class EvtRegionBorder extends SelfRegisteringSkriptEvent {
 			last = event;
 			final PlayerMoveEvent e = (PlayerMoveEvent) event;
 			final Location to = e.getTo(), from = e.getFrom();
-			if (to != null && to.equals(from))
+			if (to != null && isSameBlock(to, from))
 				return;
-			//if (to.getWorld().equals(from.getWorld()) && to.distanceSquared(from) < 2)
-			//	return;
 			final Set<? extends Region> oldRs = RegionsPlugin.getRegionsAt(from), newRs = RegionsPlugin.getRegionsAt(to);
 			for (final Region r : oldRs) {
 				if (!newRs.contains(r))
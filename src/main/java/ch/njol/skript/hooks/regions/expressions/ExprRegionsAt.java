@@ -20,6 +20,8 @@
 package ch.njol.skript.hooks.regions.expressions;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Set;
 
 import org.bukkit.Location;
 import org.bukkit.event.Event;
@@ -79,8 +81,8 @@ public class ExprRegionsAt extends SimpleExpression<Region> {
 		if (ls.length == 0)
 			return new Region[0];
 		final ArrayList<Region> r = new ArrayList<>();
-		for (final Location l : ls)
-			r.addAll(RegionsPlugin.getRegionsAt(l));
+		for (final Set<? extends Region> regions : RegionsPlugin.getRegionsAt(Arrays.asList(ls)))
+			r.addAll(regions);
 		return r.toArray(new Region[r.size()]);
 	}
 	
@@ -0,0 +1,397 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.lang;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import ch.njol.skript.lang.SkriptParser.MalformedPatternException;
+
+/**
+ * A Skript pattern that has been preprocessed for {@link SkriptParser}.
+ * <p>
+ * Patterns never change after syntax elements have been registered, so
+ * everything the parser used to recompute on every match attempt (matching
+ * brackets, group alternatives and their marks, expression names and indices,
+ * regular expressions) is computed once here and stored in tables indexed by
+ * position in the pattern.
+ * <p>
+ * Malformed patterns are not rejected when compiling; the exception is stored
+ * and thrown when the parser actually reaches the broken part of the pattern,
+ * exactly like it did before patterns were compiled.
+ */
+final class CompiledPattern {
+
+	private final static Map<String, CompiledPattern> cache = new ConcurrentHashMap<>();
+
+	/**
+	 * Gets the compiled form of given pattern, compiling it if this has not
+	 * been done yet.
+	 *
+	 * @param pattern A Skript pattern.
+	 * @return The compiled pattern.
+	 */
+	@SuppressWarnings("null")
+	static CompiledPattern get(final String pattern) {
+		CompiledPattern compiled = cache.get(pattern);
+		if (compiled == null) {
+			compiled = new CompiledPattern(pattern);
+			cache.put(pattern, compiled);
+		}
+		return compiled;
+	}
+
+	final String pattern;
+
+	/**
+	 * Characters of the pattern.
+	 */
+	final char[] chars;
+
+	/**
+	 * Lower case characters of the pattern, for case insensitive comparison.
+	 */
+	final char[] lowerChars;
+
+	/**
+	 * Number of expressions in the pattern, i.e. the size of
+	 * {@link SkriptParser.ParseResult#exprs}.
+	 */
+	final int exprCount;
+
+	/**
+	 * Names of expressions (contents of %...%), in order of appearance.
+	 */
+	final String[] exprNames;
+
+	/**
+	 * Where to jump from given position. For '[', the position after the
+	 * closing bracket, for '|' the closing bracket of the group or -1 if the
+	 * pipe is not inside a group, for '%' and '<' the end of the expression or
+	 * the regex.
+	 */
+	private final int[] jumps;
+
+	/**
+	 * For '%', index of the expression in {@link SkriptParser.ParseResult#exprs}.
+	 */
+	private final int[] exprIndices;
+
+	/**
+	 * For '%', the expression name between the percent signs.
+	 */
+	private final String[] names;
+
+	/**
+	 * For '<', the compiled regular expression.
+	 */
+	private final Pattern[] regexes;
+
+	/**
+	 * For '(', start positions of all alternatives in the group.
+	 */
+	private final int[][] alternatives;
+
+	/**
+	 * For '(', the parse marks of all alternatives in the group.
+	 */
+	private final int[][] marks;
+
+	/**
+	 * Errors that are thrown when parser reaches given position.
+	 */
+	@Nullable
+	private final MalformedPatternException[] errors;
+
+	/**
+	 * Lower case literals one of which every text matching this pattern must
+	 * start with, or null if the pattern may start with an expression or
+	 * regex. See {@link #mayMatch(String)}.
+	 */
+	@Nullable
+	final String[] leadingLiterals;
+
+	private CompiledPattern(final String pattern) {
+		this.pattern = pattern;
+		final int length = pattern.length();
+		chars = pattern.toCharArray();
+		lowerChars = new char[length];
+		for (int j = 0; j < length; j++)
+			lowerChars[j] = Character.toLowerCase(chars[j]);
+
+		exprCount = SkriptParser.countUnescaped(pattern, '%') / 2;
+		final List<String> exprNames = new ArrayList<>(exprCount);
+		for (int x = SkriptParser.nextUnescaped(pattern, '%', 0); x != -1; x = SkriptParser.nextUnescaped(pattern, '%', x + 1)) {
+			final int x2 = SkriptParser.nextUnescaped(pattern, '%', x + 1);
+			if (x2 == -1)
+				break;
+			exprNames.add(pattern.substring(x + 1, x2));
+			x = x2;
+		}
+		this.exprNames = exprNames.toArray(new String[0]);
+
+		jumps = new int[length];
+		exprIndices = new int[length];
+		names = new String[length];
+		regexes = new Pattern[length];
+		alternatives = new int[length][];
+		marks = new int[length][];
+		MalformedPatternException[] errors = null;
+
+		for (int j = 0; j < length; j++) {
+			try {
+				switch (chars[j]) {
+					case '[':
+						jumps[j] = SkriptParser.nextBracket(pattern, ']', '[', j + 1, true) + 1;
+						break;
+					case '(':
+						compileGroup(j);
+						break;
+					case '%': {
+						final int end = pattern.indexOf('%', j + 1);
+						if (end == -1)
+							throw new MalformedPatternException(pattern, "Odd number of '%'");
+						jumps[j] = end;
+						names[j] = pattern.substring(j + 1, end);
+						exprIndices[j] = SkriptParser.countUnescaped(pattern, '%', 0, j) / 2;
+						break;
+					}
+					case '<': {
+						final int end = pattern.indexOf('>', j + 1);
+						if (end == -1)
+							throw new MalformedPatternException(pattern, "Missing closing regex bracket '>'");
+						jumps[j] = end;
+						try {
+							regexes[j] = Pattern.compile(pattern.substring(j + 1, end));
+						} catch (final PatternSyntaxException e) {
+							throw new MalformedPatternException(pattern, "Invalid regex <" + pattern.substring(j + 1, end) + ">", e);
+						}
+						break;
+					}
+					case '|':
+						jumps[j] = SkriptParser.nextBracket(pattern, ')', '(', j + 1, SkriptParser.getGroupLevel(pattern, j) != 0);
+						break;
+					case '\\':
+						if (j + 1 == length)
+							throw new MalformedPatternException(pattern, "Must not end with a backslash");
+						break;
+					default:
+						break;
+				}
+			} catch (final MalformedPatternException e) {
+				if (errors == null)
+					errors = new MalformedPatternException[length];
+				errors[j] = e;
+			}
+		}
+		this.errors = errors;
+
+		final Set<String> leading = new LinkedHashSet<>();
+		leadingLiterals = collectLeading(0, "", leading, new int[] {MAX_LEADING_PATHS}) ? leading.toArray(new String[0]) : null;
+	}
+
+	/**
+	 * Limits how many paths through optional groups and choices are followed
+	 * when looking for leading literals.
+	 */
+	private final static int MAX_LEADING_PATHS = 32;
+
+	/**
+	 * Collects literals that texts matching the pattern from given position
+	 * must start with.
+	 *
+	 * @param j Position in the pattern.
+	 * @param prefix Literal collected so far on this path.
+	 * @param out Where to put found literals.
+	 * @param budget Remaining number of paths that may be followed.
+	 * @return Whether all paths start with a literal. If not, contents of
+	 * out are meaningless.
+	 */
+	private boolean collectLeading(int j, String prefix, final Set<String> out, final int[] budget) {
+		if (budget[0]-- <= 0)
+			return false;
+		final MalformedPatternException[] errors = this.errors;
+		while (j < chars.length) {
+			if (errors != null && errors[j] != null)
+				return false;
+			switch (chars[j]) {
+				case '[':
+					return collectLeading(j + 1, prefix, out, budget) && collectLeading(jumps[j], prefix, out, budget);
+				case '(':
+					for (final int alternative : alternatives(j)) {
+						if (!collectLeading(alternative, prefix, out, budget))
+							return false;
+					}
+					return true;
+				case ']':
+				case ')':
+					j++;
+					continue;
+				case '|':
+					if (jumps[j] == -1) // Pipe outside of groups restarts matching
+						return false;
+					j = jumps[j] + 1;
+					continue;
+				case ' ':
+				case '%':
+				case '<':
+					if (prefix.isEmpty()) {
+						if (chars[j] != ' ')
+							return false;
+						j++; // Leading spaces are ignored by the parser
+						continue;
+					}
+					out.add(prefix);
+					return true;
+				case '\\':
+					j++;
+					//$FALL-THROUGH$
+				default:
+					prefix += lowerChars[j];
+					j++;
+			}
+		}
+		if (prefix.isEmpty())
+			return false;
+		out.add(prefix);
+		return true;
+	}
+
+	/**
+	 * Quickly checks whether given text could match this pattern. If this
+	 * returns false, parsing the text with this pattern fails without
+	 * printing any errors.
+	 *
+	 * @param expr Trimmed text to check.
+	 * @return False if the text cannot match this pattern.
+	 */
+	boolean mayMatch(final String expr) {
+		final String[] leadingLiterals = this.leadingLiterals;
+		if (leadingLiterals == null)
+			return true;
+		outer: for (final String literal : leadingLiterals) {
+			if (literal.length() > expr.length())
+				continue;
+			for (int k = 0; k < literal.length(); k++) {
+				if (literal.charAt(k) != Character.toLowerCase(expr.charAt(k)))
+					continue outer;
+			}
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Finds all alternatives of the group at given position. If the group is
+	 * malformed, the alternatives found before the problem are still recorded
+	 * before the exception is thrown.
+	 */
+	private void compileGroup(final int start) {
+		final int length = chars.length;
+		final List<int[]> found = new ArrayList<>();
+		try {
+			for (int j = start; j < length; j++) {
+				if (j == start || chars[j] == '|') {
+					int mark = 0;
+					if (j != length - 1 && ('0' <= chars[j + 1] && chars[j + 1] <= '9' || chars[j + 1] == '-')) {
+						final int j2 = pattern.indexOf('¦', j + 2);
+						if (j2 != -1) {
+							try {
+								mark = Integer.parseInt(pattern.substring(j + 1, j2));
+								j = j2;
+							} catch (final NumberFormatException e) {}
+						}
+					}
+					found.add(new int[] {j + 1, mark});
+				} else if (chars[j] == '(') {
+					j = SkriptParser.nextBracket(pattern, ')', '(', j + 1, true);
+				} else if (chars[j] == ')') {
+					break;
+				} else if (j == length - 1) {
+					throw new MalformedPatternException(pattern, "Missing closing bracket ')'");
+				}
+			}
+		} finally {
+			final int[] starts = new int[found.size()], groupMarks = new int[found.size()];
+			for (int k = 0; k < starts.length; k++) {
+				starts[k] = found.get(k)[0];
+				groupMarks[k] = found.get(k)[1];
+			}
+			alternatives[start] = starts;
+			marks[start] = groupMarks;
+		}
+	}
+
+	/**
+	 * Throws the exception recorded for given position, if there is one.
+	 */
+	void checkMalformed(final int j) throws MalformedPatternException {
+		final MalformedPatternException[] errors = this.errors;
+		if (errors != null && errors[j] != null)
+			throw errors[j];
+	}
+
+	int jump(final int j) {
+		checkMalformed(j);
+		return jumps[j];
+	}
+
+	int exprIndex(final int j) {
+		return exprIndices[j];
+	}
+
+	String name(final int j) {
+		final String name = names[j];
+		assert name != null;
+		return name;
+	}
+
+	Pattern regex(final int j) {
+		final Pattern regex = regexes[j];
+		assert regex != null;
+		return regex;
+	}
+
+	int[] alternatives(final int j) {
+		final int[] alts = alternatives[j];
+		assert alts != null;
+		return alts;
+	}
+
+	int[] marks(final int j) {
+		final int[] groupMarks = marks[j];
+		assert groupMarks != null;
+		return groupMarks;
+	}
+
+	@Override
+	public String toString() {
+		return pattern;
+	}
+
+}
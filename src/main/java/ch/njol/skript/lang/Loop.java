@@ -60,13 +60,13 @@ public class Loop extends TriggerSection {
 		} else {
 			this.expr = expr;
 		}
-		ScriptLoader.currentSections.add(this);
-		ScriptLoader.currentLoops.add(this);
+		ScriptLoader.getCurrentSections().add(this);
+		ScriptLoader.getCurrentLoops().add(this);
 		try {
 			setTriggerItems(ScriptLoader.loadItems(node));
 		} finally {
-			ScriptLoader.currentLoops.remove(ScriptLoader.currentLoops.size() - 1);
-			ScriptLoader.currentSections.remove(ScriptLoader.currentSections.size() - 1);
+			ScriptLoader.getCurrentLoops().remove(ScriptLoader.getCurrentLoops().size() - 1);
+			ScriptLoader.getCurrentSections().remove(ScriptLoader.getCurrentSections().size() - 1);
 		}
 		super.setNext(this);
 	}
@@ -22,11 +22,11 @@ package ch.njol.skript.lang;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Deque;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.MatchResult;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -48,10 +48,13 @@ import ch.njol.skript.command.Commands;
 import ch.njol.skript.command.ScriptCommand;
 import ch.njol.skript.command.ScriptCommandEvent;
 import ch.njol.skript.config.Config;
+import ch.njol.skript.config.Node;
 import ch.njol.skript.expressions.ExprParse;
 import ch.njol.skript.lang.function.ExprFunctionCall;
 import ch.njol.skript.lang.function.FunctionReference;
 import ch.njol.skript.lang.function.Functions;
+import ch.njol.skript.lang.parser.ParseCache;
+import ch.njol.skript.lang.parser.ParserInstance;
 import ch.njol.skript.lang.util.SimpleLiteral;
 import ch.njol.skript.localization.Language;
 import ch.njol.skript.localization.Message;
@@ -134,9 +137,14 @@ public class SkriptParser {
 			expr = parser.expr;
 			exprs = new Expression<?>[countUnescaped(pattern, '%') / 2];
 		}
+		
+		ParseResult(final SkriptParser parser, final CompiledPattern pattern) {
+			expr = parser.expr;
+			exprs = new Expression<?>[pattern.exprCount];
+		}
 	}
 	
-	private final static class MalformedPatternException extends RuntimeException {
+	final static class MalformedPatternException extends RuntimeException {
 		private static final long serialVersionUID = -5133477361763823946L;
 		
 		public MalformedPatternException(final String pattern, final String message) {
@@ -214,53 +222,43 @@ public class SkriptParser {
 	private final <T extends SyntaxElement> T parse(final Iterator<? extends SyntaxElementInfo<? extends T>> source) {
 		final ParseLogHandler log = SkriptLogger.startParseLogHandler();
 		try {
+			final ParseCache cache = ParserInstance.get().getParseCache();
+			String key = null;
+			if (cache != null && source instanceof SyntaxElementIndex.Candidates && ((SyntaxElementIndex.Candidates<?>) source).getKind() != null) {
+				final Node node = SkriptLogger.getNode();
+				key = (node == null ? -1 : node.getLine()) + ":" + ((SyntaxElementIndex.Candidates<?>) source).getKind() + ":" + expr;
+				final ParseCache.Match match = cache.get(key);
+				if (match != null) {
+					@SuppressWarnings("unchecked")
+					final SyntaxElementInfo<? extends T> info = ((SyntaxElementIndex.Candidates<? extends SyntaxElementInfo<? extends T>>) source).find(match.element, expr, match.pattern);
+					if (info != null && match.pattern < info.patterns.length) {
+						final T t = parse(info, match.pattern);
+						if (t != null) {
+							log.printLog();
+							cache.record(key, match.element, match.pattern);
+							return t;
+						}
+					}
+					// Script does not parse like it did last time, or an element before the remembered one
+					// might match it now; search all elements so that the same element wins as without cache
+				}
+			}
 			while (source.hasNext()) {
 				final SyntaxElementInfo<? extends T> info = source.next();
-				patternsLoop: for (int i = 0; i < info.patterns.length; i++) {
+				for (int i = 0; i < info.patterns.length; i++) {
 					log.clear();
-					try {
-						final String pattern = info.patterns[i];
-						assert pattern != null;
-						final ParseResult res = parse_i(pattern, 0, 0);
-						if (res != null) {
-							int x = -1;
-							for (int j = 0; (x = nextUnescaped(pattern, '%', x + 1)) != -1; j++) {
-								final int x2 = nextUnescaped(pattern, '%', x + 1);
-								if (res.exprs[j] == null) {
-									final String name = pattern.substring(x + 1, x2);
-									if (!name.startsWith("-")) {
-										final ExprInfo vi = getExprInfo(name);
-										final DefaultExpression<?> expr = vi.classes[0].getDefaultExpression();
-										if (expr == null)
-											throw new SkriptAPIException("The class '" + vi.classes[0].getCodeName() + "' does not provide a default expression. Either allow null (with %-" + vi.classes[0].getCodeName() + "%) or make it mandatory [pattern: " + info.patterns[i] + "]");
-										if (!(expr instanceof Literal) && (vi.flagMask & PARSE_EXPRESSIONS) == 0)
-											throw new SkriptAPIException("The default expression of '" + vi.classes[0].getCodeName() + "' is not a literal. Either allow null (with %-*" + vi.classes[0].getCodeName() + "%) or make it mandatory [pattern: " + info.patterns[i] + "]");
-										if (expr instanceof Literal && (vi.flagMask & PARSE_LITERALS) == 0)
-											throw new SkriptAPIException("The default expression of '" + vi.classes[0].getCodeName() + "' is a literal. Either allow null (with %-~" + vi.classes[0].getCodeName() + "%) or make it mandatory [pattern: " + info.patterns[i] + "]");
-										if (!vi.isPlural[0] && !expr.isSingle())
-											throw new SkriptAPIException("The default expression of '" + vi.classes[0].getCodeName() + "' is not a single-element expression. Change your pattern to allow multiple elements or make the expression mandatory [pattern: " + info.patterns[i] + "]");
-										if (vi.time != 0 && !expr.setTime(vi.time))
-											throw new SkriptAPIException("The default expression of '" + vi.classes[0].getCodeName() + "' does not have distinct time states. [pattern: " + info.patterns[i] + "]");
-										if (!expr.init())
-											continue patternsLoop;
-										res.exprs[j] = expr;
-									}
-								}
-								x = x2;
-							}
-							final T t = info.c.newInstance();
-							if (t.init(res.exprs, i, ScriptLoader.hasDelayBefore, res)) {
-								log.printLog();
-								return t;
-							}
-						}
-					} catch (final InstantiationException e) {
-						assert false;
-					} catch (final IllegalAccessException e) {
-						assert false;
+					final T t = parse(info, i);
+					if (t != null) {
+						log.printLog();
+						if (cache != null && key != null)
+							cache.record(key, info.c.getName(), i);
+						return t;
 					}
 				}
 			}
+			// Elements left out by the index would've cleared the log
+			if (source instanceof SyntaxElementIndex.Candidates && ((SyntaxElementIndex.Candidates<?>) source).skippedLast())
+				log.clear();
 			log.printError();
 			return null;
 		} finally {
@@ -268,6 +266,57 @@ public class SkriptParser {
 		}
 	}
 	
+	/**
+	 * Tries to parse the text with one pattern of a syntax element.
+	 * 
+	 * @param info The syntax element.
+	 * @param i Index of the pattern.
+	 * @return The initialised syntax element, or null if the pattern did not match or the element could not be initialised.
+	 */
+	@Nullable
+	private final <T extends SyntaxElement> T parse(final SyntaxElementInfo<? extends T> info, final int i) {
+		try {
+			final String pattern = info.patterns[i];
+			assert pattern != null;
+			final CompiledPattern compiled = CompiledPattern.get(pattern);
+			if (!compiled.mayMatch(expr))
+				return null;
+			final ParseResult res = parse_i(compiled, 0, 0);
+			if (res == null)
+				return null;
+			for (int j = 0; j < compiled.exprNames.length; j++) {
+				if (res.exprs[j] == null) {
+					final String name = compiled.exprNames[j];
+					if (!name.startsWith("-")) {
+						final ExprInfo vi = getExprInfo(name);
+						final DefaultExpression<?> expr = vi.classes[0].getDefaultExpression();
+						if (expr == null)
+							throw new SkriptAPIException("The class '" + vi.classes[0].getCodeName() + "' does not provide a default expression. Either allow null (with %-" + vi.classes[0].getCodeName() + "%) or make it mandatory [pattern: " + info.patterns[i] + "]");
+						if (!(expr instanceof Literal) && (vi.flagMask & PARSE_EXPRESSIONS) == 0)
+							throw new SkriptAPIException("The default expression of '" + vi.classes[0].getCodeName() + "' is not a literal. Either allow null (with %-*" + vi.classes[0].getCodeName() + "%) or make it mandatory [pattern: " + info.patterns[i] + "]");
+						if (expr instanceof Literal && (vi.flagMask & PARSE_LITERALS) == 0)
+							throw new SkriptAPIException("The default expression of '" + vi.classes[0].getCodeName() + "' is a literal. Either allow null (with %-~" + vi.classes[0].getCodeName() + "%) or make it mandatory [pattern: " + info.patterns[i] + "]");
+						if (!vi.isPlural[0] && !expr.isSingle())
+							throw new SkriptAPIException("The default expression of '" + vi.classes[0].getCodeName() + "' is not a single-element expression. Change your pattern to allow multiple elements or make the expression mandatory [pattern: " + info.patterns[i] + "]");
+						if (vi.time != 0 && !expr.setTime(vi.time))
+							throw new SkriptAPIException("The default expression of '" + vi.classes[0].getCodeName() + "' does not have distinct time states. [pattern: " + info.patterns[i] + "]");
+						if (!expr.init())
+							return null;
+						res.exprs[j] = expr;
+					}
+				}
+			}
+			final T t = info.c.newInstance();
+			if (t.init(res.exprs, i, ScriptLoader.getHasDelayBefore(), res))
+				return t;
+		} catch (final InstantiationException e) {
+			assert false;
+		} catch (final IllegalAccessException e) {
+			assert false;
+		}
+		return null;
+	}
+	
 	@SuppressWarnings("null")
 	private final static Pattern varPattern = Pattern.compile("((the )?var(iable)? )?\\{([^{}]|%\\{|\\}%)+\\}", Pattern.CASE_INSENSITIVE);
 	
@@ -321,7 +370,7 @@ public class SkriptParser {
 				if (expr.startsWith("\"") && expr.endsWith("\"") && expr.length() != 1 && (types[0] == Object.class || CollectionUtils.contains(types, String.class))) {
 					e = VariableString.newInstance("" + expr.substring(1, expr.length() - 1));
 				} else {
-					e = (Expression<?>) parse(expr, (Iterator) Skript.getExpressions(types), null);
+					e = (Expression<?>) parse(expr, (Iterator) Skript.getExpressions(expr, types), null);
 				}
 				if (e != null) { // Expression/VariableString parsing success
 					for (final Class<? extends T> t : types) {
@@ -499,7 +548,7 @@ public class SkriptParser {
 				if (expr.startsWith("\"") && expr.endsWith("\"") && expr.length() != 1 && (types[0] == Object.class || CollectionUtils.contains(types, String.class))) {
 					e = VariableString.newInstance("" + expr.substring(1, expr.length() - 1));
 				} else {
-					e = (Expression<?>) parse(expr, (Iterator) Skript.getExpressions(types), null);
+					e = (Expression<?>) parse(expr, (Iterator) Skript.getExpressions(expr, types), null);
 				}
 				if (e != null) { // Expression/VariableString parsing success
 					Class<?> returnType = e.getReturnType(); // Sometimes getReturnType does non-trivial costly operations
@@ -619,8 +668,8 @@ public class SkriptParser {
 				if ((flags & PARSE_LITERALS) != 0) {
 					// Hack as items use '..., ... and ...' for enchantments. Numbers and times are parsed beforehand as they use the same (deprecated) id[:data] syntax.
 					final SkriptParser p = new SkriptParser(expr, PARSE_LITERALS, context);
-					if (ScriptLoader.currentScript != null) {
-						Config cs = ScriptLoader.currentScript;
+					if (ScriptLoader.getCurrentScript() != null) {
+						Config cs = ScriptLoader.getCurrentScript();
 						p.suppressMissingAndOrWarnings = ScriptOptions.getInstance().suppressesWarning(cs.getFile(), "conjunction");
 					}
 					if (!p.suppressMissingAndOrWarnings) {
@@ -777,8 +826,8 @@ public class SkriptParser {
 				return ts.get(0);
 			
 			if (and.isUnknown() && !suppressMissingAndOrWarnings) {
-				if (ScriptLoader.currentScript != null) {
-					Config cs = ScriptLoader.currentScript;
+				if (ScriptLoader.getCurrentScript() != null) {
+					Config cs = ScriptLoader.getCurrentScript();
 					if (!ScriptOptions.getInstance().suppressesWarning(cs.getFile(), "conjunction")) {
 						Skript.warning(MISSING_AND_OR + ": " + expr);
 					}
@@ -819,8 +868,8 @@ public class SkriptParser {
 					// Hack as items use '..., ... and ...' for enchantments. Numbers and times are parsed beforehand as they use the same (deprecated) id[:data] syntax.
 					final SkriptParser p = new SkriptParser(expr, PARSE_LITERALS, context);
 					p.suppressMissingAndOrWarnings = suppressMissingAndOrWarnings; // If we suppress warnings here, we suppress them in parser what we created too
-					if (ScriptLoader.currentScript != null) {
-						Config cs = ScriptLoader.currentScript;
+					if (ScriptLoader.getCurrentScript() != null) {
+						Config cs = ScriptLoader.getCurrentScript();
 						p.suppressMissingAndOrWarnings = ScriptOptions.getInstance().suppressesWarning(cs.getFile(), "conjunction");
 					}
 					for (final Class<?> c : new Class[] {Number.class, Time.class, ItemType.class, ItemStack.class}) {
@@ -986,8 +1035,8 @@ public class SkriptParser {
 			}
 			
 			if (and.isUnknown() && !suppressMissingAndOrWarnings) {
-				if (ScriptLoader.currentScript != null) {
-					Config cs = ScriptLoader.currentScript;
+				if (ScriptLoader.getCurrentScript() != null) {
+					Config cs = ScriptLoader.getCurrentScript();
 					if (!ScriptOptions.getInstance().suppressesWarning(cs.getFile(), "conjunction"))
 						Skript.warning(MISSING_AND_OR + ": " + expr);
 				} else {
@@ -1186,7 +1235,7 @@ public class SkriptParser {
 //			@SuppressWarnings("null")
 			
 			final FunctionReference<T> e = new FunctionReference<>(functionName, SkriptLogger.getNode(),
-					ScriptLoader.currentScript != null ? ScriptLoader.currentScript.getFileName() : null, types, params);//.toArray(new Expression[params.size()]));
+					ScriptLoader.getCurrentScript() != null ? ScriptLoader.getCurrentScript().getFileName() : null, types, params);//.toArray(new Expression[params.size()]));
 			if (!e.validateFunction(true)) {
 				log.printError();
 				return null;
@@ -1202,12 +1251,19 @@ public class SkriptParser {
 	 * Prints parse errors (i.e. must start a ParseLog before calling this method)
 	 */
 	public static boolean parseArguments(final String args, final ScriptCommand command, final ScriptCommandEvent event) {
+		final CommandPattern pattern = command.getCompiledPattern();
+		final List<Argument<?>> as = command.getArguments();
+		if (args.isEmpty() && pattern.matchesEmpty) { // Nothing to parse, all arguments get their defaults
+			for (final Argument<?> a : as)
+				a.setToDefault(event);
+			return true;
+		}
+		
 		final SkriptParser parser = new SkriptParser(args, PARSE_LITERALS, ParseContext.COMMAND);
-		final ParseResult res = parser.parse_i(command.getPattern(), 0, 0);
+		final ParseResult res = parser.parse_i(pattern.pattern, 0, 0);
 		if (res == null)
 			return false;
 		
-		final List<Argument<?>> as = command.getArguments();
 		assert as.size() == res.exprs.length;
 		for (int i = 0; i < res.exprs.length; i++) {
 			if (res.exprs[i] == null)
@@ -1218,6 +1274,56 @@ public class SkriptParser {
 		return true;
 	}
 	
+	/**
+	 * Argument pattern of a command, compiled when the command is loaded so
+	 * that {@link #parseArguments(String, ScriptCommand, ScriptCommandEvent)}
+	 * does as little work as possible when the command is used.
+	 */
+	public final static class CommandPattern {
+		
+		final CompiledPattern pattern;
+		
+		/**
+		 * Whether the pattern matches when no arguments are given. Parsing an
+		 * empty text never parses any argument, so this is always same.
+		 */
+		final boolean matchesEmpty;
+		
+		CommandPattern(final CompiledPattern pattern, final boolean matchesEmpty) {
+			this.pattern = pattern;
+			this.matchesEmpty = matchesEmpty;
+		}
+		
+		@Override
+		public String toString() {
+			return pattern.pattern;
+		}
+	}
+	
+	/**
+	 * Compiles argument pattern of a command.
+	 * 
+	 * @param pattern Pattern created from arguments of the command.
+	 * @return The compiled pattern.
+	 */
+	public static CommandPattern compileCommandPattern(final String pattern) {
+		final CompiledPattern compiled = CompiledPattern.get(pattern);
+		final ParseLogHandler log = SkriptLogger.startParseLogHandler();
+		try {
+			boolean matchesEmpty;
+			try {
+				matchesEmpty = new SkriptParser("", PARSE_LITERALS, ParseContext.COMMAND).parse_i(compiled, 0, 0) != null;
+			} catch (final MalformedPatternException e) {
+				matchesEmpty = false; // Reported when the command is used, like before
+			}
+			log.clear();
+			log.printLog();
+			return new CommandPattern(compiled, matchesEmpty);
+		} finally {
+			log.stop();
+		}
+	}
+	
 	/**
 	 * Parses the text as the given pattern as {@link ParseContext#COMMAND}.
 	 * <p>
@@ -1225,7 +1331,7 @@ public class SkriptParser {
 	 */
 	@Nullable
 	public static ParseResult parse(final String text, final String pattern) {
-		return new SkriptParser(text, PARSE_LITERALS, ParseContext.COMMAND).parse_i(pattern, 0, 0);
+		return new SkriptParser(text, PARSE_LITERALS, ParseContext.COMMAND).parse_i(CompiledPattern.get(pattern), 0, 0);
 	}
 	
 	@Nullable
@@ -1250,13 +1356,18 @@ public class SkriptParser {
 		assert flags == PARSE_LITERALS;
 		final ParseLogHandler log = SkriptLogger.startParseLogHandler();
 		try {
-			for (final SkriptEventInfo<?> info : Skript.getEvents()) {
+			final Iterator<SkriptEventInfo<?>> candidates = Skript.getEvents(expr);
+			while (candidates.hasNext()) {
+				final SkriptEventInfo<?> info = candidates.next();
 				for (int i = 0; i < info.patterns.length; i++) {
 					log.clear();
 					try {
 						final String pattern = info.patterns[i];
 						assert pattern != null;
-						final ParseResult res = parse_i(pattern, 0, 0);
+						final CompiledPattern compiled = CompiledPattern.get(pattern);
+						if (!compiled.mayMatch(expr))
+							continue;
+						final ParseResult res = parse_i(compiled, 0, 0);
 						if (res != null) {
 							final SkriptEvent e = info.c.newInstance();
 							final Literal<?>[] ls = Arrays.copyOf(res.exprs, res.exprs.length, Literal[].class);
@@ -1275,6 +1386,8 @@ public class SkriptParser {
 					}
 				}
 			}
+			if (candidates instanceof SyntaxElementIndex.Candidates && ((SyntaxElementIndex.Candidates<?>) candidates).skippedLast())
+				log.clear();
 			log.printError(null);
 			return null;
 		} finally {
@@ -1293,7 +1406,7 @@ public class SkriptParser {
 	 * @return The index of the next bracket
 	 * @throws MalformedPatternException If the group is not closed
 	 */
-	private static int nextBracket(final String pattern, final char closingBracket, final char openingBracket, final int start, final boolean isGroup) throws MalformedPatternException {
+	static int nextBracket(final String pattern, final char closingBracket, final char openingBracket, final int start, final boolean isGroup) throws MalformedPatternException {
 		int n = 0;
 		for (int i = start; i < pattern.length(); i++) {
 			if (pattern.charAt(i) == '\\') {
@@ -1323,7 +1436,7 @@ public class SkriptParser {
 	 * @param from The index to start searching from
 	 * @return The next index where the character occurs unescaped or -1 if it doesn't occur.
 	 */
-	private static int nextUnescaped(final String pattern, final char c, final int from) {
+	static int nextUnescaped(final String pattern, final char c, final int from) {
 		for (int i = from; i < pattern.length(); i++) {
 			if (pattern.charAt(i) == '\\') {
 				i++;
@@ -1453,7 +1566,7 @@ public class SkriptParser {
 		return i + 1;
 	}
 	
-	private static int getGroupLevel(final String pattern, final int j) {
+	static int getGroupLevel(final String pattern, final int j) {
 		assert j >= 0 && j <= pattern.length() : j + "; " + pattern;
 		int level = 0;
 		for (int i = 0; i < j; i++) {
@@ -1474,18 +1587,19 @@ public class SkriptParser {
 	/**
 	 * Prints errors
 	 * 
-	 * @param pattern
+	 * @param pattern The compiled pattern, see {@link CompiledPattern#get(String)}
 	 * @param i Position in the input string
 	 * @param j Position in the pattern
 	 * @return Parsed result or null on error (which does not imply that an error was printed)
 	 */
 	@Nullable
-	private final ParseResult parse_i(final String pattern, int i, int j) {
+	private final ParseResult parse_i(final CompiledPattern pattern, int i, int j) {
 		ParseResult res;
 		int end, i2;
 		
-		while (j < pattern.length()) {
-			switch (pattern.charAt(j)) {
+		final char[] chars = pattern.chars;
+		while (j < chars.length) {
+			switch (chars[j]) {
 				case '[': {
 					final ParseLogHandler log = SkriptLogger.startParseLogHandler();
 					try {
@@ -1495,7 +1609,7 @@ public class SkriptParser {
 							return res;
 						}
 						log.clear();
-						j = nextBracket(pattern, ']', '[', j + 1, true) + 1;
+						j = pattern.jump(j);
 						res = parse_i(pattern, i, j);
 						if (res == null)
 							log.printError();
@@ -1509,34 +1623,21 @@ public class SkriptParser {
 				case '(': {
 					final ParseLogHandler log = SkriptLogger.startParseLogHandler();
 					try {
-						final int start = j;
-						for (; j < pattern.length(); j++) {
+						final int[] alternatives = pattern.alternatives(j);
+						final int[] marks = pattern.marks(j);
+						for (int k = 0; k < alternatives.length; k++) {
 							log.clear();
-							if (j == start || pattern.charAt(j) == '|') {
-								int mark = 0;
-								if (j != pattern.length() - 1 && ('0' <= pattern.charAt(j + 1) && pattern.charAt(j + 1) <= '9' || pattern.charAt(j + 1) == '-')) {
-									final int j2 = pattern.indexOf('¦', j + 2);
-									if (j2 != -1) {
-										try {
-											mark = Integer.parseInt(pattern.substring(j + 1, j2));
-											j = j2;
-										} catch (final NumberFormatException e) {}
-									}
-								}
-								res = parse_i(pattern, i, j + 1);
-								if (res != null) {
-									log.printLog();
-									res.mark ^= mark; // doesn't do anything if no mark was set as x ^ 0 == x
-									return res;
-								}
-							} else if (pattern.charAt(j) == '(') {
-								j = nextBracket(pattern, ')', '(', j + 1, true);
-							} else if (pattern.charAt(j) == ')') {
-								break;
-							} else if (j == pattern.length() - 1) {
-								throw new MalformedPatternException(pattern, "Missing closing bracket ')'");
+							res = parse_i(pattern, i, alternatives[k]);
+							if (res != null) {
+								log.printLog();
+								res.mark ^= marks[k]; // doesn't do anything if no mark was set as x ^ 0 == x
+								return res;
 							}
 						}
+						// Errors of the last alternative are discarded, unless the pattern ended in it
+						if (alternatives.length == 0 || alternatives[alternatives.length - 1] != chars.length)
+							log.clear();
+						pattern.checkMalformed(j);
 						log.printError();
 						return null;
 					} finally {
@@ -1546,12 +1647,9 @@ public class SkriptParser {
 				case '%': {
 					if (i == expr.length())
 						return null;
-					end = pattern.indexOf('%', j + 1);
-					if (end == -1)
-						throw new MalformedPatternException(pattern, "Odd number of '%'");
-					final String name = "" + pattern.substring(j + 1, end); // %type/anothertype%
-					final ExprInfo vi = getExprInfo(name);
-					if (end == pattern.length() - 1) {
+					end = pattern.jump(j);
+					final ExprInfo vi = getExprInfo(pattern.name(j));
+					if (end == chars.length - 1) {
 						i2 = expr.length();
 					} else {
 						i2 = next(expr, i, context);
@@ -1580,7 +1678,7 @@ public class SkriptParser {
 										if (vi.time != 0) {
 											if (e instanceof Literal<?>)
 												return null;
-											if (ScriptLoader.hasDelayBefore == Kleenean.TRUE) {
+											if (ScriptLoader.getHasDelayBefore() == Kleenean.TRUE) {
 												Skript.error("Cannot use time states after the event has already passed", ErrorQuality.SEMANTIC_ERROR);
 												return null;
 											}
@@ -1591,7 +1689,7 @@ public class SkriptParser {
 										}
 										log2.printLog();
 										log.printLog();
-										res.exprs[countUnescaped(pattern, '%', 0, j) / 2] = e;
+										res.exprs[pattern.exprIndex(j)] = e;
 										return res;
 									}
 									// results in useless errors most of the time
@@ -1609,15 +1707,8 @@ public class SkriptParser {
 					return null;
 				}
 				case '<': {
-					end = pattern.indexOf('>', j + 1);// not next()
-					if (end == -1)
-						throw new MalformedPatternException(pattern, "Missing closing regex bracket '>'");
-					Pattern p;
-					try {
-						p = Pattern.compile(pattern.substring(j + 1, end));
-					} catch (final PatternSyntaxException e) {
-						throw new MalformedPatternException(pattern, "Invalid regex <" + pattern.substring(j + 1, end) + ">", e);
-					}
+					end = pattern.jump(j);
+					final Pattern p = pattern.regex(j);
 					final ParseLogHandler log = SkriptLogger.startParseLogHandler();
 					try {
 						final Matcher m = p.matcher(expr);
@@ -1644,10 +1735,10 @@ public class SkriptParser {
 					j++;
 					continue;
 				case '|':
-					final int newJ = nextBracket(pattern, ')', '(', j + 1, getGroupLevel(pattern, j) != 0);
+					final int newJ = pattern.jump(j);
 					if (newJ == -1) {
 						if (i == expr.length()) {
-							j = pattern.length();
+							j = chars.length;
 							break;
 						} else {
 							i = 0;
@@ -1669,18 +1760,17 @@ public class SkriptParser {
 					j++;
 					continue;
 				case '\\':
+					pattern.checkMalformed(j);
 					j++;
-					if (j == pattern.length())
-						throw new MalformedPatternException(pattern, "Must not end with a backslash");
 					//$FALL-THROUGH$
 				default:
-					if (i == expr.length() || Character.toLowerCase(pattern.charAt(j)) != Character.toLowerCase(expr.charAt(i)))
+					if (i == expr.length() || pattern.lowerChars[j] != Character.toLowerCase(expr.charAt(i)))
 						return null;
 					i++;
 					j++;
 			}
 		}
-		if (i == expr.length() && j == pattern.length())
+		if (i == expr.length() && j == chars.length)
 			return new ParseResult(this, pattern);
 		return null;
 	}
@@ -1797,7 +1887,7 @@ public class SkriptParser {
 		int time = 0;
 	}
 	
-	private static final Map<String,ExprInfo> exprInfoCache = new HashMap<>();
+	private static final Map<String,ExprInfo> exprInfoCache = new ConcurrentHashMap<>();
 	
 	private static ExprInfo getExprInfo(String s) throws MalformedPatternException, IllegalArgumentException, SkriptAPIException {
 		ExprInfo r = exprInfoCache.get(s);
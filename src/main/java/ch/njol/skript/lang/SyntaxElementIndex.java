@@ -0,0 +1,325 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.lang;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import ch.njol.util.NullableChecker;
+
+/**
+ * Indexes syntax elements by literals their patterns must start with (see
+ * {@link CompiledPattern#leadingLiterals}), so that a line is only tried
+ * against elements that could possibly match it. Elements with patterns that
+ * may start with an expression or a regex are always candidates.
+ * <p>
+ * Candidates are returned in registration order, so the element chosen by
+ * {@link SkriptParser} does not change.
+ *
+ * @param <I> Type of syntax element infos.
+ */
+public final class SyntaxElementIndex<I extends SyntaxElementInfo<?>> {
+
+	/**
+	 * Node of the literal prefix tree.
+	 */
+	private final static class Node {
+
+		char[] keys = new char[0];
+		Node[] children = new Node[0];
+
+		/**
+		 * Indices of elements that have a pattern starting with the literal
+		 * that ends at this node.
+		 */
+		int[] elements = new int[0];
+
+		@Nullable
+		Node child(final char c) {
+			final char[] keys = this.keys;
+			for (int i = 0; i < keys.length; i++) {
+				if (keys[i] == c)
+					return children[i];
+			}
+			return null;
+		}
+
+		Node getOrCreateChild(final char c) {
+			final Node child = child(c);
+			if (child != null)
+				return child;
+			final int size = keys.length;
+			final char[] keys = new char[size + 1];
+			final Node[] children = new Node[size + 1];
+			System.arraycopy(this.keys, 0, keys, 0, size);
+			System.arraycopy(this.children, 0, children, 0, size);
+			keys[size] = c;
+			children[size] = new Node();
+			this.keys = keys;
+			this.children = children;
+			return children[size];
+		}
+
+		void addElement(final int element) {
+			final int size = elements.length;
+			if (size != 0 && elements[size - 1] == element)
+				return;
+			final int[] elements = new int[size + 1];
+			System.arraycopy(this.elements, 0, elements, 0, size);
+			elements[size] = element;
+			this.elements = elements;
+		}
+	}
+
+	/**
+	 * Immutable snapshot of the index for one state of the registry.
+	 */
+	private final static class Snapshot<I> {
+
+		final List<I> elements;
+		final Node root;
+
+		/**
+		 * Elements that are candidates for any text.
+		 */
+		final BitSet always;
+
+		Snapshot(final List<I> elements, final Node root, final BitSet always) {
+			this.elements = elements;
+			this.root = root;
+			this.always = always;
+		}
+	}
+
+	private final Collection<? extends I> source;
+
+	@Nullable
+	private final String kind;
+
+	@Nullable
+	private volatile Snapshot<I> snapshot;
+
+	/**
+	 * Creates an index of given syntax elements. The collection may still be
+	 * modified; the index is rebuilt if its size has changed.
+	 *
+	 * @param source Registered syntax elements, in registration order.
+	 */
+	public SyntaxElementIndex(final Collection<? extends I> source) {
+		this(source, null);
+	}
+
+	/**
+	 * Creates an index of given syntax elements whose parse results may be
+	 * remembered in a {@link ch.njol.skript.lang.parser.ParseCache}.
+	 *
+	 * @param source Registered syntax elements, in registration order.
+	 * @param kind Name of this kind of elements, used in parse cache keys.
+	 * Null if parse results of these elements must not be cached.
+	 */
+	public SyntaxElementIndex(final Collection<? extends I> source, final @Nullable String kind) {
+		this.source = source;
+		this.kind = kind;
+	}
+
+	private Snapshot<I> getSnapshot() {
+		Snapshot<I> snapshot = this.snapshot;
+		if (snapshot != null && snapshot.elements.size() == source.size())
+			return snapshot;
+		synchronized (this) {
+			snapshot = this.snapshot;
+			if (snapshot == null || snapshot.elements.size() != source.size())
+				this.snapshot = snapshot = build();
+			return snapshot;
+		}
+	}
+
+	private Snapshot<I> build() {
+		final List<I> elements = new ArrayList<>(source);
+		final Node root = new Node();
+		final BitSet always = new BitSet(elements.size());
+		for (int element = 0; element < elements.size(); element++) {
+			for (final String pattern : elements.get(element).patterns) {
+				assert pattern != null;
+				final String[] literals = CompiledPattern.get(pattern).leadingLiterals;
+				if (literals == null) {
+					always.set(element);
+					break;
+				}
+				for (final String literal : literals) {
+					Node node = root;
+					for (int i = 0; i < literal.length(); i++)
+						node = node.getOrCreateChild(literal.charAt(i));
+					node.addElement(element);
+				}
+			}
+		}
+		return new Snapshot<>(elements, root, always);
+	}
+
+	/**
+	 * Gets elements that might match given text.
+	 *
+	 * @param text Text to be parsed.
+	 * @return Candidates, in registration order.
+	 */
+	public Candidates<I> candidates(final String text) {
+		return candidates(text, null);
+	}
+
+	/**
+	 * Gets elements that might match given text and are accepted by given
+	 * checker.
+	 *
+	 * @param text Text to be parsed.
+	 * @param checker Filter applied to candidates, like it would be applied
+	 * to all elements without this index.
+	 * @return Candidates, in registration order.
+	 */
+	public Candidates<I> candidates(final String text, final @Nullable NullableChecker<? super I> checker) {
+		final Snapshot<I> snapshot = getSnapshot();
+		final BitSet candidates = (BitSet) snapshot.always.clone();
+		int i = 0;
+		while (i < text.length() && text.charAt(i) <= ' ') // Same as trim()
+			i++;
+		Node node = snapshot.root;
+		for (; i < text.length(); i++) {
+			node = node.child(Character.toLowerCase(text.charAt(i)));
+			if (node == null)
+				break;
+			for (final int element : node.elements)
+				candidates.set(element);
+		}
+		return new Candidates<>(snapshot.elements, candidates, checker, kind);
+	}
+
+	/**
+	 * Iterator over candidates for one text.
+	 */
+	public final static class Candidates<I> implements Iterator<I> {
+
+		private final List<I> elements;
+		private final BitSet candidates;
+		@Nullable
+		private final NullableChecker<? super I> checker;
+		@Nullable
+		private final String kind;
+
+		private int last = -1;
+		private int next;
+
+		Candidates(final List<I> elements, final BitSet candidates, final @Nullable NullableChecker<? super I> checker, final @Nullable String kind) {
+			this.elements = elements;
+			this.candidates = candidates;
+			this.checker = checker;
+			this.kind = kind;
+			next = findNext(0);
+		}
+
+		private int findNext(final int from) {
+			final NullableChecker<? super I> checker = this.checker;
+			for (int i = candidates.nextSetBit(from); i >= 0; i = candidates.nextSetBit(i + 1)) {
+				if (checker == null || checker.check(elements.get(i)))
+					return i;
+			}
+			return -1;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next != -1;
+		}
+
+		@Override
+		public I next() {
+			if (next == -1)
+				throw new NoSuchElementException();
+			last = next;
+			next = findNext(next + 1);
+			return elements.get(last);
+		}
+
+		/**
+		 * Checks whether elements that would have been tried after the last
+		 * returned candidate were left out by the index.
+		 * <p>
+		 * The parser only keeps errors of the last pattern it tried, so when
+		 * this is the case, it must discard them to print same errors as
+		 * without the index.
+		 *
+		 * @return Whether there were more elements after the last candidate.
+		 */
+		public boolean skippedLast() {
+			final NullableChecker<? super I> checker = this.checker;
+			for (int i = elements.size() - 1; i > last; i--) {
+				if (checker == null || checker.check(elements.get(i)))
+					return true;
+			}
+			return false;
+		}
+
+		/**
+		 * @return Kind of the indexed elements, or null if their parse
+		 * results must not be cached.
+		 */
+		@Nullable
+		public String getKind() {
+			return kind;
+		}
+
+		/**
+		 * Finds the candidate of given class without affecting iteration, if
+		 * it would be the first to match given text. That is the case when
+		 * no pattern tried before the given one could match the text at all.
+		 *
+		 * @param className Name of the syntax element class.
+		 * @param expr Text that is parsed.
+		 * @param pattern Index of the pattern of the candidate.
+		 * @return The candidate, or null if no candidate has that class or
+		 * an earlier pattern may match the text.
+		 */
+		@Nullable
+		public I find(final String className, final String expr, final int pattern) {
+			final NullableChecker<? super I> checker = this.checker;
+			for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+				final I info = elements.get(i);
+				if (checker != null && !checker.check(info))
+					continue;
+				final SyntaxElementInfo<?> element = (SyntaxElementInfo<?>) info;
+				final boolean found = element.c.getName().equals(className);
+				final int end = found ? Math.min(pattern, element.patterns.length) : element.patterns.length;
+				for (int j = 0; j < end; j++) {
+					if (CompiledPattern.get(element.patterns[j]).mayMatch(expr))
+						return null; // Would be tried first, and might match
+				}
+				if (found)
+					return info;
+			}
+			return null;
+		}
+	}
+
+}
@@ -49,11 +49,11 @@ public abstract class TriggerSection extends TriggerItem {
 	}
 	
 	protected TriggerSection(final SectionNode node) {
-		ScriptLoader.currentSections.add(this);
+		ScriptLoader.getCurrentSections().add(this);
 		try {
 			setTriggerItems(ScriptLoader.loadItems(node));
 		} finally {
-			ScriptLoader.currentSections.remove(ScriptLoader.currentSections.size() - 1);
+			ScriptLoader.getCurrentSections().remove(ScriptLoader.getCurrentSections().size() - 1);
 		}
 	}
 	
@@ -66,9 +66,9 @@ public abstract class TriggerSection extends TriggerItem {
 	 * Remember to add this section to {@link ScriptLoader#currentSections} before parsing child elements!
 	 * 
 	 * <pre>
-	 * ScriptLoader.currentSections.add(this);
+	 * ScriptLoader.getCurrentSections().add(this);
 	 * setTriggerItems(ScriptLoader.loadItems(node));
-	 * ScriptLoader.currentSections.remove(ScriptLoader.currentSections.size() - 1);
+	 * ScriptLoader.getCurrentSections().remove(ScriptLoader.getCurrentSections().size() - 1);
 	 * </pre>
 	 * 
 	 * @param items
@@ -273,7 +273,7 @@ public class Variable<T> implements Expression<T> {
 	 */
 	@Nullable
 	public Object getRaw(final Event e) {
-		final String n = name.toString(e);
+		final String n = name.toVariableName(e);
 		if (n.endsWith(Variable.SEPARATOR + "*") != list) // prevents e.g. {%expr%} where "%expr%" ends with "::*" from returning a Map
 			return null;
 		final Object val = !list ? convertIfOldPlayer(n, e, Variables.getVariable(n, e, local)) : Variables.getVariable(n, e, local);
@@ -291,7 +291,7 @@ public class Variable<T> implements Expression<T> {
 		if (val == null)
 			return Array.newInstance(types[0], 0);
 		final List<Object> l = new ArrayList<>();
-		final String name = StringUtils.substring(this.name.toString(e), 0, -1);
+		final String name = StringUtils.substring(this.name.toVariableName(e), 0, -1);
 		for (final Entry<String, ?> v : ((Map<String, ?>) val).entrySet()) {
 			if (v.getKey() != null && v.getValue() != null) {
 				Object o;
@@ -327,7 +327,7 @@ public class Variable<T> implements Expression<T> {
 	public Iterator<Pair<String, Object>> variablesIterator(final Event e) {
 		if (!list)
 			throw new SkriptAPIException("Looping a non-list variable");
-		final String name = StringUtils.substring(this.name.toString(e), 0, -1);
+		final String name = StringUtils.substring(this.name.toVariableName(e), 0, -1);
 		final Object val = Variables.getVariable(name + "*", e, local);
 		if (val == null)
 			return new EmptyIterator<>();
@@ -377,7 +377,7 @@ public class Variable<T> implements Expression<T> {
 	public Iterator<T> iterator(final Event e) {
 		//if (!list)
 		//	throw new SkriptAPIException("");
-		final String name = StringUtils.substring(this.name.toString(e), 0, -1);
+		final String name = StringUtils.substring(this.name.toVariableName(e), 0, -1);
 		final Object val = Variables.getVariable(name + "*", e, local);
 		if (val == null)
 			return new EmptyIterator<>();
@@ -438,12 +438,12 @@ public class Variable<T> implements Expression<T> {
 	}
 	
 	private final void set(final Event e, final @Nullable Object value) {
-		Variables.setVariable("" + name.toString(e), value, e, local);
+		Variables.setVariable(name.toVariableName(e), value, e, local);
 	}
 	
 	private final void setIndex(final Event e, final String index, final @Nullable Object value) {
 		assert list;
-		final String s = name.toString(e);
+		final String s = name.toVariableName(e);
 		assert s.endsWith("::*") : s + "; " + name;
 		Variables.setVariable(s.substring(0, s.length() - 1) + index, value, e, local);
 	}
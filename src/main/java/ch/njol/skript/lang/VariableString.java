@@ -24,6 +24,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.regex.Pattern;
@@ -53,6 +54,7 @@ import ch.njol.skript.util.StringMode;
 import ch.njol.skript.util.Utils;
 import ch.njol.skript.util.chat.ChatMessages;
 import ch.njol.skript.util.chat.MessageComponent;
+import ch.njol.skript.variables.Variables;
 import ch.njol.util.Checker;
 import ch.njol.util.Kleenean;
 import ch.njol.util.StringUtils;
@@ -89,9 +91,29 @@ public class VariableString implements Expression<String> {
 	private final String simpleUnformatted;
 	private final StringMode mode;
 	
+	/**
+	 * Lower cased {@link #simple}, see {@link #toVariableName(Event)}.
+	 */
+	@Nullable
+	private String simpleLowerCase;
+	
+	/**
+	 * Expected length of this string when rendered, based on the last time
+	 * it was rendered.
+	 */
+	private int lengthHint = 16;
+	
+	/**
+	 * Builders with a larger capacity are not kept after use.
+	 */
+	private final static int MAX_RETAINED_CAPACITY = 1024;
+	
+	private final static ThreadLocal<StringBuilder> builders = new ThreadLocal<>();
+	
 	/**
 	 * Message components that this string consists of. Only simple parts have
-	 * been evaluated here.
+	 * been evaluated here; they are parsed once when the script is loaded and
+	 * must not be modified.
 	 */
 	private final MessageComponent[] components;
 
@@ -113,7 +135,7 @@ public class VariableString implements Expression<String> {
 		mode = StringMode.MESSAGE;
 		
 		assert simpleUnformatted != null;
-		components = new MessageComponent[] {ChatMessages.plainText(simpleUnformatted)};
+		components = ChatMessages.parseToArray(simpleUnformatted);
 	}
 	
 	/**
@@ -334,7 +356,7 @@ public class VariableString implements Expression<String> {
 		if (mode != StringMode.VARIABLE_NAME || variableNames.containsKey(name))
 			return;
 		if (name.startsWith("%")) {// inside the if to only print this message once per variable
-			final Config script = ScriptLoader.currentScript;
+			final Config script = ScriptLoader.getCurrentScript();
 			if (script != null) {
 				if (disableVariableStartingWithExpressionWarnings && !ScriptOptions.getInstance().suppressesWarning(script.getFile(), "start expression")) {
 					Skript.warning("Starting a variable's name with an expression is discouraged ({" + name + "}). You could prefix it with the script's name: {" + StringUtils.substring(script.getFileName(), 0, -3) + "." + name + "}");
@@ -364,7 +386,7 @@ public class VariableString implements Expression<String> {
 			pattern = Pattern.compile(Pattern.quote(name));
 		}
 		if (!SkriptConfig.disableVariableConflictWarnings.value()) {
-			Config cs = ScriptLoader.currentScript; //Eclipse's nullness forced me to do this
+			Config cs = ScriptLoader.getCurrentScript(); //Eclipse's nullness forced me to do this
 			if (cs != null) {
 				if (!ScriptOptions.getInstance().suppressesWarning(cs.getFile(), "conflict")) {
 					for (final Entry<String, Pattern> e : variableNames.entrySet()) {
@@ -457,32 +479,124 @@ public class VariableString implements Expression<String> {
 
 		final Object[] string = this.string;
 		assert string != null;
-		final StringBuilder b = new StringBuilder();
-		for (int i = 0; i < string.length; i++) {
-			final Object o = string[i];
-			if (o instanceof Expression<?>) {
-				assert mode != StringMode.MESSAGE;
-				b.append(Classes.toString(((Expression<?>) o).getArray(e), true, mode));
-			} else if (o instanceof ExpressionInfo) {
-				assert mode == StringMode.MESSAGE;
-				final ExpressionInfo info = (ExpressionInfo) o;
-				int flags = info.flags;
-				if ((flags & Language.F_PLURAL) == 0 && b.length() > 0 && Math.abs(StringUtils.numberBefore(b, b.length() - 1)) != 1)
-					flags |= Language.F_PLURAL;
-				if (info.toChatStyle) {
-					final String s = Classes.toString(info.expr.getArray(e), flags, getLastColor(b));
-					final String style = Utils.getChatStyle(s);
-					b.append(style == null ? "<" + s + ">" : style);
+		final StringBuilder b = acquireBuilder();
+		try {
+			for (int i = 0; i < string.length; i++) {
+				final Object o = string[i];
+				if (o instanceof Expression<?>) {
+					assert mode != StringMode.MESSAGE;
+					b.append(Classes.toString(((Expression<?>) o).getArray(e), true, mode));
+				} else if (o instanceof ExpressionInfo) {
+					assert mode == StringMode.MESSAGE;
+					final ExpressionInfo info = (ExpressionInfo) o;
+					int flags = info.flags;
+					if ((flags & Language.F_PLURAL) == 0 && b.length() > 0 && Math.abs(StringUtils.numberBefore(b, b.length() - 1)) != 1)
+						flags |= Language.F_PLURAL;
+					if (info.toChatStyle) {
+						final String s = Classes.toString(info.expr.getArray(e), flags, getLastColor(b));
+						final String style = Utils.getChatStyle(s);
+						b.append(style == null ? "<" + s + ">" : style);
+					} else {
+						b.append(Classes.toString(info.expr.getArray(e), flags, getLastColor(b)));
+					}
 				} else {
-					b.append(Classes.toString(info.expr.getArray(e), flags, getLastColor(b)));
+					b.append(o);
 				}
-			} else {
-				b.append(o);
 			}
+			return finish(b);
+		} finally {
+			releaseBuilder(b);
+		}
+	}
+	
+	/**
+	 * Gets the name of a variable from this string. This is same as
+	 * {@link #toString(Event)}, but if variable names are case insensitive,
+	 * the name is lower cased while it is built instead of being copied
+	 * again by {@link Variables}.
+	 * 
+	 * @param e Event to pass to the expressions.
+	 * @return The variable name.
+	 */
+	public String toVariableName(final Event e) {
+		if (!Variables.caseInsensitiveVariables)
+			return toString(e);
+		if (isSimple) {
+			String lowerCase = simpleLowerCase;
+			if (lowerCase == null) {
+				assert simple != null;
+				simpleLowerCase = lowerCase = "" + simple.toLowerCase(Locale.ENGLISH);
+			}
+			return lowerCase;
+		}
+		
+		final Object[] string = this.string;
+		assert string != null;
+		if (mode != StringMode.VARIABLE_NAME) // Plural and color handling of messages is not needed for names
+			return "" + toString(e).toLowerCase(Locale.ENGLISH);
+		final StringBuilder b = acquireBuilder();
+		try {
+			boolean ascii = true;
+			for (final Object o : string) {
+				if (o instanceof Expression<?>)
+					ascii &= appendLowerCase(b, Classes.toString(((Expression<?>) o).getArray(e), true, mode));
+				else
+					ascii &= appendLowerCase(b, (String) o);
+			}
+			// Other characters are rare, and lower casing them may depend on what is around them
+			return ascii ? finish(b) : "" + finish(b).toLowerCase(Locale.ENGLISH);
+		} finally {
+			releaseBuilder(b);
 		}
+	}
+	
+	/**
+	 * Appends given string, with ASCII letters lower cased.
+	 * 
+	 * @return Whether the string only had ASCII characters.
+	 */
+	private static boolean appendLowerCase(final StringBuilder b, final String s) {
+		boolean ascii = true;
+		for (int i = 0; i < s.length(); i++) {
+			final char c = s.charAt(i);
+			if ('A' <= c && c <= 'Z')
+				b.append((char) (c + ('a' - 'A')));
+			else
+				b.append(c);
+			if (c >= 128)
+				ascii = false;
+		}
+		return ascii;
+	}
+	
+	/**
+	 * Gets a builder for rendering this string. Builders are reused on each
+	 * thread; if the thread's builder is already in use (i.e. this string is
+	 * rendered while rendering another one), a new one is created.
+	 */
+	private StringBuilder acquireBuilder() {
+		final StringBuilder b = builders.get();
+		if (b == null)
+			return new StringBuilder(lengthHint);
+		builders.remove();
+		b.setLength(0);
+		return b;
+	}
+	
+	/**
+	 * Returns the contents of given builder and remembers its length for
+	 * sizing the next one.
+	 */
+	private String finish(final StringBuilder b) {
+		lengthHint = b.length() + 16;
 		return "" + b.toString();
 	}
 	
+	private static void releaseBuilder(final StringBuilder b) {
+		if (b.capacity() <= MAX_RETAINED_CAPACITY)
+			builders.set(b);
+	}
+	
 	/**
 	 * Parses all expressions in the string and returns it.
 	 * Does not parse formatting codes!
@@ -496,30 +610,34 @@ public class VariableString implements Expression<String> {
 		}
 		final Object[] string = this.stringUnformatted;
 		assert string != null;
-		final StringBuilder b = new StringBuilder();
-		for (int i = 0; i < string.length; i++) {
-			final Object o = string[i];
-			if (o instanceof Expression<?>) {
-				assert mode != StringMode.MESSAGE;
-				b.append(Classes.toString(((Expression<?>) o).getArray(e), true, mode));
-			} else if (o instanceof ExpressionInfo) {
-				assert mode == StringMode.MESSAGE;
-				final ExpressionInfo info = (ExpressionInfo) o;
-				int flags = info.flags;
-				if ((flags & Language.F_PLURAL) == 0 && b.length() > 0 && Math.abs(StringUtils.numberBefore(b, b.length() - 1)) != 1)
-					flags |= Language.F_PLURAL;
-				if (info.toChatStyle) {
-					final String s = Classes.toString(info.expr.getArray(e), flags, null);
-					final String style = Utils.getChatStyle(s);
-					b.append(style == null ? "<" + s + ">" : style);
+		final StringBuilder b = acquireBuilder();
+		try {
+			for (int i = 0; i < string.length; i++) {
+				final Object o = string[i];
+				if (o instanceof Expression<?>) {
+					assert mode != StringMode.MESSAGE;
+					b.append(Classes.toString(((Expression<?>) o).getArray(e), true, mode));
+				} else if (o instanceof ExpressionInfo) {
+					assert mode == StringMode.MESSAGE;
+					final ExpressionInfo info = (ExpressionInfo) o;
+					int flags = info.flags;
+					if ((flags & Language.F_PLURAL) == 0 && b.length() > 0 && Math.abs(StringUtils.numberBefore(b, b.length() - 1)) != 1)
+						flags |= Language.F_PLURAL;
+					if (info.toChatStyle) {
+						final String s = Classes.toString(info.expr.getArray(e), flags, null);
+						final String style = Utils.getChatStyle(s);
+						b.append(style == null ? "<" + s + ">" : style);
+					} else {
+						b.append(Classes.toString(info.expr.getArray(e), flags, null));
+					}
 				} else {
-					b.append(Classes.toString(info.expr.getArray(e), flags, null));
+					b.append(o);
 				}
-			} else {
-				b.append(o);
 			}
+			return finish(b);
+		} finally {
+			releaseBuilder(b);
 		}
-		return "" + b.toString();
 	}
 	
 	/**
@@ -529,10 +647,8 @@ public class VariableString implements Expression<String> {
 	 * @return Message components.
 	 */
 	public List<MessageComponent> getMessageComponents(Event e) {
-		if (isSimple) { // Trusted, constant string in a script
-			assert simpleUnformatted != null;
-			return ChatMessages.parse(simpleUnformatted);
-		}
+		if (isSimple) // Trusted, constant string in a script
+			return copyComponents();
 		
 		// Parse formating
 		Object[] string = this.stringUnformatted;
@@ -609,14 +725,24 @@ public class VariableString implements Expression<String> {
 	 * @return Message components.
 	 */
 	public List<MessageComponent> getMessageComponentsUnsafe(Event e) {
-		if (isSimple) { // Trusted, constant string in a script
-			assert simpleUnformatted != null;
-			return ChatMessages.parse(simpleUnformatted);
-		}
+		if (isSimple) // Trusted, constant string in a script
+			return copyComponents();
 		
 		return ChatMessages.parse(toUnformattedString(e));
 	}
 	
+	/**
+	 * Copies components of a simple string, which were parsed when it was
+	 * created.
+	 */
+	private List<MessageComponent> copyComponents() {
+		assert isSimple;
+		List<MessageComponent> message = new ArrayList<>(components.length);
+		for (MessageComponent component : components)
+			message.add(component.copy());
+		return message;
+	}
+	
 	/**
 	 * Parses all expressions in the string and returns it in chat JSON format.
 	 * 
@@ -211,7 +211,9 @@ public class FunctionReference<T> {
 		}
 		
 		signature = (Signature<? extends T>) sign;
-		sign.calls.add(this);
+		synchronized (sign.calls) { // Scripts may be parsed in parallel
+			sign.calls.add(this);
+		}
 		
 		return true;
 	}
@@ -39,6 +39,7 @@ import ch.njol.skript.classes.ClassInfo;
 import ch.njol.skript.config.SectionNode;
 import ch.njol.skript.lang.ParseContext;
 import ch.njol.skript.lang.SkriptParser;
+import ch.njol.skript.lang.parser.ParserInstance;
 import ch.njol.skript.log.SkriptLogger;
 import ch.njol.skript.registrations.Classes;
 import ch.njol.skript.util.Utils;
@@ -66,9 +67,29 @@ public abstract class Functions {
 		}
 	}
 	
+	/**
+	 * Only used when scripts are not parsed in parallel, see
+	 * {@link ParserInstance#isParallel()}.
+	 * @deprecated Use {@link #getCurrentFunction()} and
+	 * {@link #setCurrentFunction(ScriptFunction)}.
+	 */
+	@Deprecated
 	@Nullable
 	public static ScriptFunction<?> currentFunction = null;
 	
+	/**
+	 * Gets the function that is being parsed by current thread.
+	 * @return Current function, or null if not parsing a function.
+	 */
+	@Nullable
+	public static ScriptFunction<?> getCurrentFunction() {
+		return ParserInstance.get().getCurrentFunction();
+	}
+	
+	public static void setCurrentFunction(@Nullable ScriptFunction<?> function) {
+		ParserInstance.get().setCurrentFunction(function);
+	}
+	
 	/**
 	 * Function namespaces.
 	 */
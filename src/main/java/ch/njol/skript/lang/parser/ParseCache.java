@@ -0,0 +1,281 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.lang.parser;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.SkriptAddon;
+import ch.njol.skript.classes.ClassInfo;
+import ch.njol.skript.config.Config;
+import ch.njol.skript.lang.ExpressionInfo;
+import ch.njol.skript.lang.SkriptEventInfo;
+import ch.njol.skript.lang.SyntaxElementInfo;
+import ch.njol.skript.registrations.Classes;
+import ch.njol.skript.util.ExceptionUtils;
+
+/**
+ * Remembers which syntax element and pattern matched lines of a script, so
+ * that the parser can try them first when the same script is parsed again
+ * instead of searching through all elements.
+ * <p>
+ * Caches are stored on disk, one for every script file. A cache is only used
+ * if the script, Skript version, addons and registered syntax are exactly same
+ * as when it was saved. Even then, a remembered match is only a hint: it is
+ * skipped to if no element registered before it could match the line, and if
+ * it fails to parse the line, the parser tries all elements like it would do
+ * without the cache. This way, state of other scripts (e.g. functions) can't
+ * make a different element win than without the cache.
+ */
+public class ParseCache {
+	
+	/**
+	 * Version of the cache file format.
+	 */
+	private final static int FORMAT = 1;
+	
+	/**
+	 * Lines longer than this are not cached.
+	 */
+	private final static int MAX_KEY_LENGTH = 8192;
+	
+	/**
+	 * A syntax element and its pattern that matched some text.
+	 */
+	public final static class Match {
+		
+		/**
+		 * Name of the syntax element class.
+		 */
+		public final String element;
+		
+		/**
+		 * Index of the pattern that matched.
+		 */
+		public final int pattern;
+		
+		public Match(final String element, final int pattern) {
+			this.element = element;
+			this.pattern = pattern;
+		}
+		
+		@Override
+		public boolean equals(final @Nullable Object obj) {
+			if (!(obj instanceof Match))
+				return false;
+			final Match other = (Match) obj;
+			return element.equals(other.element) && pattern == other.pattern;
+		}
+		
+		@Override
+		public int hashCode() {
+			return 31 * element.hashCode() + pattern;
+		}
+	}
+	
+	private final File file;
+	private final String contentHash;
+	
+	/**
+	 * Matches found when the script was parsed last time.
+	 */
+	private final Map<String, Match> loaded;
+	
+	/**
+	 * Matches found during this parse.
+	 */
+	private final Map<String, Match> recorded = new HashMap<>();
+	
+	private ParseCache(final File file, final String contentHash, final Map<String, Match> loaded) {
+		this.file = file;
+		this.contentHash = contentHash;
+		this.loaded = loaded;
+	}
+	
+	/**
+	 * Loads the parse cache of given script. If there is no cache or it is
+	 * out of date, an empty cache is returned; it is filled while the script
+	 * is parsed.
+	 * @param config The script.
+	 * @return Cache for the script, or null if the script is not a file.
+	 */
+	@Nullable
+	public static ParseCache load(final Config config) {
+		final File script = config.getFile();
+		if (script == null)
+			return null;
+		final String contentHash;
+		try {
+			contentHash = hash(Files.readAllBytes(script.toPath()));
+		} catch (final IOException e) {
+			return null;
+		}
+		final File file = new File(new File(Skript.getInstance().getDataFolder(), "cache" + File.separator + "parse"),
+				config.getFileName().replace(File.separatorChar, '_').replace('/', '_') + ".cache");
+		
+		final Map<String, Match> loaded = new HashMap<>();
+		if (file.exists()) {
+			try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+				if (in.readInt() == FORMAT && in.readUTF().equals(getFingerprint()) && in.readUTF().equals(contentHash)) {
+					final int size = in.readInt();
+					for (int i = 0; i < size; i++)
+						loaded.put(in.readUTF(), new Match(in.readUTF(), in.readInt()));
+				}
+			} catch (final IOException e) {
+				Skript.debug("Could not read parse cache of " + config.getFileName() + ": " + ExceptionUtils.toString(e));
+				loaded.clear();
+			}
+		}
+		return new ParseCache(file, contentHash, loaded);
+	}
+	
+	/**
+	 * Gets the match that was found for given text last time.
+	 * @param key Text and where it was parsed.
+	 * @return The match, or null if not known.
+	 */
+	@Nullable
+	public Match get(final String key) {
+		return loaded.get(key);
+	}
+	
+	/**
+	 * Remembers that given text was matched by given pattern.
+	 * @param key Text and where it was parsed.
+	 * @param element Class name of the syntax element.
+	 * @param pattern Index of the pattern.
+	 */
+	public void record(final String key, final String element, final int pattern) {
+		if (key.length() <= MAX_KEY_LENGTH)
+			recorded.put(key, new Match(element, pattern));
+	}
+	
+	/**
+	 * Checks whether this cache was up to date with the script.
+	 * @return If matches from last time were available.
+	 */
+	public boolean isWarm() {
+		return !loaded.isEmpty();
+	}
+	
+	/**
+	 * Saves matches found during this parse, unless they are same as what was
+	 * loaded.
+	 */
+	public void save() {
+		if (recorded.equals(loaded))
+			return;
+		final File parent = file.getParentFile();
+		if (!parent.isDirectory() && !parent.mkdirs()) {
+			Skript.warning("Could not create directory for parse caches: " + parent);
+			return;
+		}
+		final File temp = new File(parent, file.getName() + ".temp");
+		try {
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+				out.writeInt(FORMAT);
+				out.writeUTF(getFingerprint());
+				out.writeUTF(contentHash);
+				out.writeInt(recorded.size());
+				for (final Map.Entry<String, Match> e : recorded.entrySet()) {
+					out.writeUTF(e.getKey());
+					out.writeUTF(e.getValue().element);
+					out.writeInt(e.getValue().pattern);
+				}
+			}
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} catch (final IOException e) {
+			Skript.warning("Could not save parse cache " + file.getName() + ": " + ExceptionUtils.toString(e));
+		}
+	}
+	
+	@Nullable
+	private static volatile String fingerprint;
+	
+	/**
+	 * Gets hash of everything that affects how scripts are parsed: Skript
+	 * version, addons and registered syntax and types. Registrations are
+	 * closed before scripts are loaded, so this is computed only once.
+	 */
+	private static String getFingerprint() {
+		String fingerprint = ParseCache.fingerprint;
+		if (fingerprint != null)
+			return fingerprint;
+		synchronized (ParseCache.class) {
+			fingerprint = ParseCache.fingerprint;
+			if (fingerprint != null)
+				return fingerprint;
+			final StringBuilder b = new StringBuilder();
+			b.append(Skript.getVersion()).append('\n');
+			for (final SkriptAddon addon : Skript.getAddons())
+				b.append(addon.getName()).append(' ').append(addon.version).append('\n');
+			for (final SyntaxElementInfo<?> info : Skript.getStatements())
+				append(b, info);
+			for (final Iterator<ExpressionInfo<?, ?>> iter = Skript.getExpressions(); iter.hasNext();)
+				append(b, iter.next());
+			for (final SkriptEventInfo<?> info : Skript.getEvents())
+				append(b, info);
+			for (final ClassInfo<?> ci : Classes.getClassInfos())
+				b.append(ci.getCodeName()).append(' ').append(ci.getC().getName()).append('\n');
+			ParseCache.fingerprint = fingerprint = hash(b.toString().getBytes(StandardCharsets.UTF_8));
+			return fingerprint;
+		}
+	}
+	
+	private static void append(final StringBuilder b, final SyntaxElementInfo<?> info) {
+		b.append(info.c.getName());
+		for (final String pattern : info.patterns)
+			b.append(' ').append(pattern);
+		b.append('\n');
+	}
+	
+	private static String hash(final byte[] data) {
+		final byte[] digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256").digest(data);
+		} catch (final NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e); // Every JVM has SHA-256
+		}
+		final char[] r = new char[2 * digest.length];
+		for (int i = 0; i < digest.length; i++) {
+			r[2 * i] = Character.forDigit((digest[i] & 0xF0) >> 4, 16);
+			r[2 * i + 1] = Character.forDigit(digest[i] & 0x0F, 16);
+		}
+		return new String(r);
+	}
+	
+}
@@ -19,9 +19,213 @@
  */
 package ch.njol.skript.lang.parser;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bukkit.event.Event;
+import org.eclipse.jdt.annotation.Nullable;
+
+import ch.njol.skript.ScriptLoader;
+import ch.njol.skript.aliases.ScriptAliases;
+import ch.njol.skript.command.Argument;
+import ch.njol.skript.command.Commands;
+import ch.njol.skript.config.Config;
+import ch.njol.skript.lang.Loop;
+import ch.njol.skript.lang.TriggerSection;
+import ch.njol.skript.lang.function.Functions;
+import ch.njol.skript.lang.function.ScriptFunction;
+import ch.njol.util.Kleenean;
+
 /**
  * Instance of Skript parser. Runs asynchronously.
+ * <p>
+ * Holds everything that describes where the parser currently is: the script,
+ * event, sections and loops being parsed and so on. Every thread has its own
+ * instance, which allows {@link ScriptLoader} to parse several scripts at
+ * same time. Most code should use the static methods of {@link ScriptLoader}
+ * instead of accessing this directly.
+ * <p>
+ * Instances that are not used for parallel parsing keep the current script,
+ * sections, loops, delay, function and command arguments in the deprecated
+ * static fields of {@link ScriptLoader}, {@link Commands} and
+ * {@link Functions}, so that addons which still use those fields keep
+ * working as long as parallel loading is disabled.
  */
+@SuppressWarnings("deprecation")
 public class ParserInstance {
 	
+	private static final ThreadLocal<ParserInstance> instances = ThreadLocal.withInitial(ParserInstance::new);
+	
+	/**
+	 * Gets the parser instance of current thread.
+	 * @return Parser instance.
+	 */
+	@SuppressWarnings("null")
+	public static ParserInstance get() {
+		return instances.get();
+	}
+	
+	private boolean parallel = false;
+	
+	@Nullable
+	private Config currentScript;
+	
+	@Nullable
+	private String currentEventName;
+	
+	@Nullable
+	private Class<? extends Event>[] currentEvents;
+	
+	private final List<TriggerSection> currentSections = new ArrayList<>();
+	private final List<Loop> currentLoops = new ArrayList<>();
+	private final Map<String, String> currentOptions = new HashMap<>();
+	
+	private Kleenean hasDelayBefore = Kleenean.FALSE;
+	
+	private String indentation = "";
+	
+	@Nullable
+	private ScriptFunction<?> currentFunction;
+	
+	@Nullable
+	private List<Argument<?>> currentArguments;
+	
+	@Nullable
+	private ScriptAliases scriptAliases;
+	
+	@Nullable
+	private ParseCache parseCache;
+	
+	/**
+	 * Checks whether this instance parses scripts in parallel with other
+	 * instances. If not, part of its state is kept in deprecated static
+	 * fields, see above.
+	 * @return Whether this instance is used for parallel parsing.
+	 */
+	public boolean isParallel() {
+		return parallel;
+	}
+	
+	public void setParallel(boolean parallel) {
+		this.parallel = parallel;
+	}
+	
+	@Nullable
+	public Config getCurrentScript() {
+		return parallel ? currentScript : ScriptLoader.currentScript;
+	}
+	
+	public void setCurrentScript(@Nullable Config currentScript) {
+		if (parallel)
+			this.currentScript = currentScript;
+		else
+			ScriptLoader.currentScript = currentScript;
+	}
+	
+	@Nullable
+	public String getCurrentEventName() {
+		return currentEventName;
+	}
+	
+	@Nullable
+	public Class<? extends Event>[] getCurrentEvents() {
+		return currentEvents;
+	}
+	
+	public void setCurrentEvent(@Nullable String name, @Nullable Class<? extends Event>[] events) {
+		currentEventName = name;
+		currentEvents = events;
+	}
+	
+	public List<TriggerSection> getCurrentSections() {
+		return parallel ? currentSections : ScriptLoader.currentSections;
+	}
+	
+	public List<Loop> getCurrentLoops() {
+		return parallel ? currentLoops : ScriptLoader.currentLoops;
+	}
+	
+	public Map<String, String> getCurrentOptions() {
+		return currentOptions;
+	}
+	
+	public Kleenean getHasDelayBefore() {
+		return parallel ? hasDelayBefore : ScriptLoader.hasDelayBefore;
+	}
+	
+	public void setHasDelayBefore(Kleenean hasDelayBefore) {
+		if (parallel)
+			this.hasDelayBefore = hasDelayBefore;
+		else
+			ScriptLoader.hasDelayBefore = hasDelayBefore;
+	}
+	
+	public String getIndentation() {
+		return indentation;
+	}
+	
+	public void setIndentation(String indentation) {
+		this.indentation = indentation;
+	}
+	
+	/**
+	 * Gets the function whose body is being parsed.
+	 * @return Current function, or null if not parsing a function.
+	 */
+	@Nullable
+	public ScriptFunction<?> getCurrentFunction() {
+		return parallel ? currentFunction : Functions.currentFunction;
+	}
+	
+	public void setCurrentFunction(@Nullable ScriptFunction<?> currentFunction) {
+		if (parallel)
+			this.currentFunction = currentFunction;
+		else
+			Functions.currentFunction = currentFunction;
+	}
+	
+	/**
+	 * Gets arguments of the command whose trigger is being parsed.
+	 * @return Command arguments, or null if not parsing a command.
+	 */
+	@Nullable
+	public List<Argument<?>> getCurrentArguments() {
+		return parallel ? currentArguments : Commands.currentArguments;
+	}
+	
+	public void setCurrentArguments(@Nullable List<Argument<?>> currentArguments) {
+		if (parallel)
+			this.currentArguments = currentArguments;
+		else
+			Commands.currentArguments = currentArguments;
+	}
+	
+	/**
+	 * Gets aliases defined in the script being parsed.
+	 * @return Script aliases, or null if the script has none.
+	 */
+	@Nullable
+	public ScriptAliases getScriptAliases() {
+		return scriptAliases;
+	}
+	
+	public void setScriptAliases(@Nullable ScriptAliases scriptAliases) {
+		this.scriptAliases = scriptAliases;
+	}
+	
+	/**
+	 * Gets parse cache of the script that is currently being parsed.
+	 * @return Parse cache, or null if it is disabled.
+	 */
+	@Nullable
+	public ParseCache getParseCache() {
+		return parseCache;
+	}
+	
+	public void setParseCache(@Nullable ParseCache parseCache) {
+		this.parseCache = parseCache;
+	}
+	
 }
@@ -0,0 +1,309 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.log;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.SkriptConfig;
+import ch.njol.skript.util.ExceptionUtils;
+import ch.njol.util.Closeable;
+
+/**
+ * Writes lines to log files on a separate thread, so that logging doesn't block the thread that logs.
+ * <p>
+ * Lines are queued and written in batches. Files are flushed every {@link SkriptConfig#logFileFlushInterval}, and rotated when they become larger than
+ * {@link SkriptConfig#logFileMaxSize} or older than {@link SkriptConfig#logFileRotationInterval}.
+ */
+public final class LogFileWriter {
+	
+	private LogFileWriter() {}
+	
+	/**
+	 * Lines that are queued when the writer can't keep up are dropped.
+	 */
+	private final static int MAX_QUEUED = 100000;
+	
+	/**
+	 * Files are not flushed more often than this, in milliseconds, so that the writer thread doesn't spin when the flush interval is 0.
+	 */
+	private final static long MIN_FLUSH_INTERVAL = 50;
+	
+	/**
+	 * Maximum number of lines written between checking whether files must be flushed or rotated.
+	 */
+	private final static int BATCH_SIZE = 1000;
+	
+	private final static class Line {
+		
+		final String file;
+		final long time;
+		final String message;
+		
+		Line(final String file, final long time, final String message) {
+			this.file = file;
+			this.time = time;
+			this.message = message;
+		}
+	}
+	
+	/**
+	 * An open log file. Only used by the writer thread.
+	 */
+	private final static class LogFile {
+		
+		final File file;
+		final Writer writer;
+		final long opened;
+		long size;
+		boolean dirty;
+		
+		LogFile(final File file) throws IOException {
+			this.file = file;
+			final File parent = file.getParentFile();
+			if (parent != null)
+				parent.mkdirs();
+			writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8));
+			opened = System.currentTimeMillis();
+			size = file.length();
+		}
+	}
+	
+	private final static ConcurrentLinkedQueue<Line> queue = new ConcurrentLinkedQueue<>();
+	private final static AtomicInteger queued = new AtomicInteger();
+	private final static AtomicLong dropped = new AtomicLong();
+	
+	/**
+	 * Whether lines have been dropped since the queue was last empty. Only warned about once until then.
+	 */
+	private final static AtomicBoolean dropping = new AtomicBoolean();
+	
+	@Nullable
+	private static volatile Thread thread;
+	private static volatile boolean closed = false;
+	
+	/**
+	 * Open files by name, only used by the writer thread.
+	 */
+	private final static Map<String, LogFile> files = new HashMap<>();
+	
+	/**
+	 * Queues a line to be written to a log file.
+	 * 
+	 * @param folder Folder of the log file
+	 * @param file Name of the log file relative to the folder
+	 * @param message The line, without date
+	 * @return Whether the line was queued. False if too many lines are waiting to be written or if the writer has been closed.
+	 */
+	public static boolean log(final File folder, final String file, final String message) {
+		if (closed)
+			return false;
+		if (queued.incrementAndGet() > MAX_QUEUED) {
+			queued.decrementAndGet();
+			dropped.incrementAndGet();
+			if (dropping.compareAndSet(false, true))
+				Skript.warning("Log files can't be written fast enough, lines logged to them are dropped until the queue of " + MAX_QUEUED + " lines has been written");
+			return false;
+		}
+		final Line line = new Line(new File(folder, file).getPath(), System.currentTimeMillis(), message);
+		queue.add(line);
+		if (closed && queue.remove(line)) { // Closed meanwhile, and the writer may have stopped before it got this line
+			queued.decrementAndGet();
+			return false;
+		}
+		if (thread == null)
+			start();
+		return true;
+	}
+	
+	/**
+	 * @return How many lines are waiting to be written
+	 */
+	public static int getQueueSize() {
+		return queued.get();
+	}
+	
+	/**
+	 * @return How many lines have been dropped because the queue was full
+	 */
+	public static long getDropped() {
+		return dropped.get();
+	}
+	
+	private static synchronized void start() {
+		if (thread != null || closed)
+			return;
+		final Thread t = Skript.newThread(LogFileWriter::run, "Skript log file writer");
+		t.setDaemon(true);
+		thread = t;
+		t.start();
+		Skript.closeOnDisable(new Closeable() {
+			@Override
+			public void close() {
+				LogFileWriter.close();
+			}
+		});
+	}
+	
+	/**
+	 * Writes all queued lines, closes all files and stops the writer thread. Lines logged afterwards are dropped.
+	 */
+	public static void close() {
+		closed = true;
+		final Thread t = thread;
+		if (t == null)
+			return;
+		t.interrupt();
+		try {
+			t.join(10000);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	private static void run() {
+		long lastFlush = System.currentTimeMillis();
+		while (true) {
+			final boolean stop = closed;
+			int written = 0;
+			Line line;
+			while (written < BATCH_SIZE && (line = queue.poll()) != null) {
+				queued.decrementAndGet();
+				write(line);
+				written++;
+			}
+			
+			final long now = System.currentTimeMillis();
+			final long flushInterval = Math.max(MIN_FLUSH_INTERVAL, SkriptConfig.logFileFlushInterval.value().getMilliSeconds());
+			if (stop || now - lastFlush >= flushInterval) {
+				flushAll(now);
+				lastFlush = now;
+			}
+			if (stop && queue.isEmpty())
+				break;
+			
+			if (written < BATCH_SIZE) { // Queue is empty, wait for more lines
+				if (dropping.compareAndSet(true, false))
+					Skript.warning(dropped.get() + " lines have been dropped from log files in total because they couldn't be written fast enough");
+				try {
+					Thread.sleep(Math.max(1, Math.min(flushInterval, 1000) - (System.currentTimeMillis() - lastFlush)));
+				} catch (final InterruptedException e) {} // Closed
+			}
+		}
+		for (final LogFile f : files.values()) {
+			try {
+				f.writer.close();
+			} catch (final IOException e) {}
+		}
+		files.clear();
+	}
+	
+	private static void write(final Line line) {
+		LogFile f = files.get(line.file);
+		try {
+			if (f == null) {
+				f = new LogFile(new File(line.file));
+				files.put(line.file, f);
+			}
+			final String s = "[" + SkriptConfig.formatDate(line.time) + "] " + line.message + System.lineSeparator();
+			f.writer.write(s);
+			f.size += s.length(); // Estimate, exact size of non-ASCII text doesn't matter here
+			f.dirty = true;
+			final long maxSize = SkriptConfig.logFileMaxSize.value() * 1024L;
+			if (maxSize > 0 && f.size >= maxSize)
+				rotate(f);
+		} catch (final IOException e) {
+			Skript.error("Cannot write to log file '" + line.file + "': " + ExceptionUtils.toString(e));
+			if (f != null) {
+				try {
+					f.writer.close();
+				} catch (final IOException ex) {}
+			}
+			files.remove(line.file);
+		}
+	}
+	
+	private static void flushAll(final long now) {
+		final long rotationInterval = SkriptConfig.logFileRotationInterval.value().getMilliSeconds();
+		for (final LogFile f : files.values().toArray(new LogFile[0])) {
+			try {
+				if (rotationInterval > 0 && now - f.opened >= rotationInterval && f.size > 0) {
+					rotate(f);
+				} else if (f.dirty) {
+					f.writer.flush();
+					f.dirty = false;
+				}
+			} catch (final IOException e) {
+				Skript.error("Cannot write to log file '" + f.file.getPath() + "': " + ExceptionUtils.toString(e));
+			}
+		}
+	}
+	
+	/**
+	 * Closes the given file, renames it to include the current date, and optionally compresses it. The next line for this file will create a new file.
+	 */
+	private static void rotate(final LogFile f) throws IOException {
+		files.remove(f.file.getPath());
+		f.writer.close();
+		
+		final String name = f.file.getName();
+		final String base = name.endsWith(".log") ? name.substring(0, name.length() - ".log".length()) : name;
+		final String date = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss", Locale.ENGLISH).format(new Date());
+		File rotated = new File(f.file.getParentFile(), base + "." + date + ".log");
+		for (int i = 1; rotated.exists(); i++)
+			rotated = new File(f.file.getParentFile(), base + "." + date + "-" + i + ".log");
+		if (!f.file.renameTo(rotated))
+			throw new IOException("Could not rename " + f.file.getName() + " to " + rotated.getName());
+		
+		if (SkriptConfig.compressRotatedLogFiles.value()) {
+			final File compressed = new File(rotated.getPath() + ".gz");
+			try (InputStream in = new FileInputStream(rotated); OutputStream out = new GZIPOutputStream(new FileOutputStream(compressed))) {
+				final byte[] buf = new byte[8192];
+				int n;
+				while ((n = in.read(buf)) != -1)
+					out.write(buf, 0, n);
+			}
+			if (!rotated.delete())
+				Skript.warning("Could not delete " + rotated.getName() + " after compressing it");
+		}
+	}
+	
+}
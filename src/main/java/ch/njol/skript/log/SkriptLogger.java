@@ -38,8 +38,10 @@ public abstract class SkriptLogger {
 	@SuppressWarnings("null")
 	public final static Level SEVERE = Level.SEVERE;
 	
-	@Nullable
-	private static Node node = null;
+	/**
+	 * Node that is being parsed by current thread.
+	 */
+	private final static ThreadLocal<Node> node = new ThreadLocal<>();
 	
 	private static Verbosity verbosity = Verbosity.NORMAL;
 	
@@ -56,6 +58,33 @@ public abstract class SkriptLogger {
 	
 	private final static HandlerList handlers = new HandlerList();
 	
+	/**
+	 * Log handlers of threads that parse scripts in parallel, which must not
+	 * see each other's handlers. Null on all other threads, which share
+	 * {@link #handlers}.
+	 */
+	private final static ThreadLocal<HandlerList> ownHandlers = new ThreadLocal<>();
+	
+	private static HandlerList getHandlers() {
+		final HandlerList own = ownHandlers.get();
+		return own != null ? own : handlers;
+	}
+	
+	/**
+	 * Makes the current thread use log handlers of its own instead of the
+	 * shared ones, or the shared ones again. Threads that parse scripts in
+	 * parallel use this, and retain their logs to be logged later by the
+	 * thread that loads the scripts.
+	 * 
+	 * @param own Whether the current thread should have its own handlers
+	 */
+	public static void setOwnHandlers(final boolean own) {
+		if (own)
+			ownHandlers.set(new HandlerList());
+		else
+			ownHandlers.remove();
+	}
+	
 	/**
 	 * Shorthand for <tt>{@link #startLogHandler(LogHandler) startLogHandler}(new {@link RetainingLogHandler}());</tt>
 	 * 
@@ -99,11 +128,12 @@ public abstract class SkriptLogger {
 	 * @see RedirectingLogHandler
 	 */
 	public static <T extends LogHandler> T startLogHandler(final T h) {
-		handlers.add(h);
+		getHandlers().add(h);
 		return h;
 	}
 	
 	static void removeHandler(final LogHandler h) {
+		final HandlerList handlers = getHandlers();
 		if (!handlers.contains(h))
 			return;
 		if (!h.equals(handlers.remove())) {
@@ -115,7 +145,7 @@ public abstract class SkriptLogger {
 	}
 	
 	static boolean isStopped(final LogHandler h) {
-		return !handlers.contains(h);
+		return !getHandlers().contains(h);
 	}
 	
 	@Nullable
@@ -134,12 +164,12 @@ public abstract class SkriptLogger {
 	}
 	
 	public static void setNode(final @Nullable Node node) {
-		SkriptLogger.node = node == null || node.getParent() == null ? null : node;
+		SkriptLogger.node.set(node == null || node.getParent() == null ? null : node);
 	}
 	
 	@Nullable
 	public static Node getNode() {
-		return node;
+		return node.get();
 	}
 	
 	/**
@@ -161,15 +191,16 @@ public abstract class SkriptLogger {
 	 * @see Skript#debug()
 	 */
 	public static void log(final Level level, final String message) {
-		log(new LogEntry(level, message, node));
+		log(new LogEntry(level, message, node.get()));
 	}
 	
 	public static void log(final @Nullable LogEntry entry) {
 		if (entry == null)
 			return;
+		final Node node = SkriptLogger.node.get();
 		if (Skript.testing() && node != null && node.debug())
 			System.out.print("---> " + entry.level + "/" + ErrorQuality.get(entry.quality) + ": " + entry.getMessage() + " ::" + LogEntry.findCaller());
-		for (final LogHandler h : handlers) {
+		for (final LogHandler h : getHandlers()) {
 			final LogResult r = h.log(entry);
 			switch (r) {
 				case CACHED:
@@ -194,7 +225,7 @@ public abstract class SkriptLogger {
 	}
 	
 	public static void logTracked(final Level level, final String message, final ErrorQuality quality) {
-		log(new LogEntry(level, quality.quality(), message, node, true));
+		log(new LogEntry(level, quality.quality(), message, node.get(), true));
 	}
 	
 	/**
@@ -25,15 +25,20 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.NotSerializableException;
 import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 import java.util.regex.Pattern;
 
 import org.bukkit.Bukkit;
@@ -60,10 +65,11 @@ import ch.njol.skript.variables.SerializedVariable;
 import ch.njol.skript.variables.Variables;
 import ch.njol.util.Kleenean;
 import ch.njol.util.StringUtils;
+import ch.njol.yggdrasil.DefaultYggdrasilInputStream;
+import ch.njol.yggdrasil.DefaultYggdrasilOutputStream;
 import ch.njol.yggdrasil.Tag;
 import ch.njol.yggdrasil.Yggdrasil;
 import ch.njol.yggdrasil.YggdrasilInputStream;
-import ch.njol.yggdrasil.YggdrasilOutputStream;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 /**
@@ -77,7 +83,7 @@ public abstract class Classes {
 	private static ClassInfo<?>[] classInfos = null;
 	private final static List<ClassInfo<?>> tempClassInfos = new ArrayList<ClassInfo<?>>();
 	private final static HashMap<Class<?>, ClassInfo<?>> exactClassInfos = new HashMap<Class<?>, ClassInfo<?>>();
-	private final static HashMap<Class<?>, ClassInfo<?>> superClassInfos = new HashMap<Class<?>, ClassInfo<?>>();
+	private final static Map<Class<?>, ClassInfo<?>> superClassInfos = new ConcurrentHashMap<>(); // Filled by parser threads
 	private final static HashMap<String, ClassInfo<?>> classInfosByCodeName = new HashMap<String, ClassInfo<?>>();
 	
 	/**
@@ -299,15 +305,16 @@ public abstract class Classes {
 	public static <T> ClassInfo<? super T> getSuperClassInfo(final Class<T> c) {
 		assert c != null;
 		checkAllowClassInfoInteraction();
-		final ClassInfo<?> i = superClassInfos.get(c);
-		if (i != null)
-			return (ClassInfo<? super T>) i;
+		if (Skript.isAcceptRegistrations()) // Class infos may still change
+			return (ClassInfo<? super T>) findSuperClassInfo(c);
+		return (ClassInfo<? super T>) superClassInfos.computeIfAbsent(c, Classes::findSuperClassInfo);
+	}
+	
+	@Nullable
+	private static ClassInfo<?> findSuperClassInfo(final Class<?> c) {
 		for (final ClassInfo<?> ci : getClassInfos()) {
-			if (ci.getC().isAssignableFrom(c)) {
-				if (!Skript.isAcceptRegistrations())
-					superClassInfos.put(c, ci);
-				return (ClassInfo<? super T>) ci;
-			}
+			if (ci.getC().isAssignableFrom(c))
+				return ci;
 		}
 		assert false;
 		return null;
@@ -412,10 +419,7 @@ public abstract class Classes {
 	public static <T> T parseSimple(final String s, final Class<T> c, final ParseContext context) {
 		final ParseLogHandler log = SkriptLogger.startParseLogHandler();
 		try {
-			for (final ClassInfo<?> info : getClassInfos()) {
-				final Parser<?> parser = info.getParser();
-				if (parser == null || !parser.canParse(context) || !c.isAssignableFrom(info.getC()))
-					continue;
+			for (final Parser<?> parser : getParsers(c, context)) {
 				log.clear();
 				@SuppressWarnings("unchecked")
 				final T t = (T) parser.parse(s, context);
@@ -452,18 +456,14 @@ public abstract class Classes {
 				log.printLog();
 				return t;
 			}
-			for (final ConverterInfo<?, ?> conv : Converters.getConverters()) {
-				if (context == ParseContext.COMMAND && (conv.options & Converter.NO_COMMAND_ARGUMENTS) != 0)
-					continue;
-				if (c.isAssignableFrom(conv.to)) {
-					log.clear();
-					final Object o = parseSimple(s, conv.from, context);
-					if (o != null) {
-						t = (T) ((Converter) conv.converter).convert(o);
-						if (t != null) {
-							log.printLog();
-							return t;
-						}
+			for (final ConverterInfo<?, ?> conv : getParseConverters(c, context)) {
+				log.clear();
+				final Object o = parseSimple(s, conv.from, context);
+				if (o != null) {
+					t = (T) ((Converter) conv.converter).convert(o);
+					if (t != null) {
+						log.printLog();
+						return t;
 					}
 				}
 			}
@@ -474,6 +474,68 @@ public abstract class Classes {
 		return null;
 	}
 	
+	/*
+	 * Parsers and converters that are tried when parsing a type. Class infos
+	 * and converters don't change once registration is over, so these are
+	 * computed once per type instead of searching all class infos and
+	 * converters every time something is parsed. Command arguments are parsed
+	 * this way every time a command is used.
+	 */
+	private final static Map<ParseContext, Map<Class<?>, Parser<?>[]>> parsers = new EnumMap<>(ParseContext.class);
+	private final static Map<ParseContext, Map<Class<?>, ConverterInfo<?, ?>[]>> parseConverters = new EnumMap<>(ParseContext.class);
+	static {
+		for (final ParseContext context : ParseContext.values()) {
+			parsers.put(context, new ConcurrentHashMap<>());
+			parseConverters.put(context, new ConcurrentHashMap<>());
+		}
+	}
+	
+	/**
+	 * Gets parsers of all class infos of given type or its subtypes which can
+	 * parse in given context, in order they are tried by {@link #parseSimple(String, Class, ParseContext)}.
+	 */
+	@SuppressWarnings("null")
+	private static Parser<?>[] getParsers(final Class<?> c, final ParseContext context) {
+		final Map<Class<?>, Parser<?>[]> cache = parsers.get(context);
+		Parser<?>[] r = cache.get(c);
+		if (r != null)
+			return r;
+		final List<Parser<?>> l = new ArrayList<>();
+		for (final ClassInfo<?> info : getClassInfos()) {
+			final Parser<?> parser = info.getParser();
+			if (parser == null || !parser.canParse(context) || !c.isAssignableFrom(info.getC()))
+				continue;
+			l.add(parser);
+		}
+		r = l.toArray(new Parser<?>[l.size()]);
+		if (classInfos != null) // Class infos are final
+			cache.put(c, r);
+		return r;
+	}
+	
+	/**
+	 * Gets converters to given type that {@link #parse(String, Class, ParseContext)}
+	 * tries if the type cannot be parsed directly.
+	 */
+	@SuppressWarnings("null")
+	private static ConverterInfo<?, ?>[] getParseConverters(final Class<?> c, final ParseContext context) {
+		final Map<Class<?>, ConverterInfo<?, ?>[]> cache = parseConverters.get(context);
+		ConverterInfo<?, ?>[] r = cache.get(c);
+		if (r != null)
+			return r;
+		final List<ConverterInfo<?, ?>> l = new ArrayList<>();
+		for (final ConverterInfo<?, ?> conv : Converters.getConverters()) {
+			if (context == ParseContext.COMMAND && (conv.options & Converter.NO_COMMAND_ARGUMENTS) != 0)
+				continue;
+			if (c.isAssignableFrom(conv.to))
+				l.add(conv);
+		}
+		r = l.toArray(new ConverterInfo<?, ?>[l.size()]);
+		if (classInfos != null) // Converters were created before class infos
+			cache.put(c, r);
+		return r;
+	}
+	
 	/**
 	 * Gets a parser for parsing instances of the desired type from strings. The returned parser may only be used for parsing, i.e. you must not use its toString methods.
 	 * 
@@ -594,19 +656,49 @@ public abstract class Classes {
 			}
 			return "[" + b.toString() + "]";
 		}
-		for (final ClassInfo<?> ci : getClassInfos()) {
+		final ClassInfo<?> ci = getToStringInfo(o.getClass());
+		if (ci != null) {
 			final Parser<?> parser = ci.getParser();
-			if (parser != null && ci.getC().isInstance(o)) {
-				@SuppressWarnings("unchecked")
-				final String s = mode == StringMode.MESSAGE ? ((Parser<T>) parser).toString(o, flags)
-						: mode == StringMode.DEBUG ? "[" + ci.getCodeName() + ":" + ((Parser<T>) parser).toString(o, mode) + "]"
-								: ((Parser<T>) parser).toString(o, mode);
-				return s;
-			}
+			assert parser != null;
+			@SuppressWarnings("unchecked")
+			final String s = mode == StringMode.MESSAGE ? ((Parser<T>) parser).toString(o, flags)
+					: mode == StringMode.DEBUG ? "[" + ci.getCodeName() + ":" + ((Parser<T>) parser).toString(o, mode) + "]"
+							: ((Parser<T>) parser).toString(o, mode);
+			return s;
 		}
 		return mode == StringMode.VARIABLE_NAME ? "object:" + o : "" + o;
 	}
 	
+	/**
+	 * Caches {@link #getToStringInfo(Class)}. Classes without a class info that has a parser are mapped to {@link #NO_PARSER}.
+	 */
+	private final static Map<Class<?>, Object> toStringInfos = new ConcurrentHashMap<>();
+	
+	private final static Object NO_PARSER = new Object();
+	
+	/**
+	 * Finds the first class info with a parser which accepts instances of given class.
+	 * 
+	 * @param c The class of an object to convert to a string
+	 * @return The class info whose parser should be used, or null if there is none.
+	 */
+	@Nullable
+	private static ClassInfo<?> getToStringInfo(final Class<?> c) {
+		final Object cached = toStringInfos.get(c);
+		if (cached != null)
+			return cached == NO_PARSER ? null : (ClassInfo<?>) cached;
+		ClassInfo<?> found = null;
+		for (final ClassInfo<?> ci : getClassInfos()) {
+			if (ci.getParser() != null && ci.getC().isAssignableFrom(c)) {
+				found = ci;
+				break;
+			}
+		}
+		if (!Skript.isAcceptRegistrations())
+			toStringInfos.put(c, found == null ? NO_PARSER : found);
+		return found;
+	}
+	
 	public static String toString(final Object[] os, final int flags, final boolean and) {
 		return toString(os, and, null, StringMode.MESSAGE, flags);
 	}
@@ -651,7 +743,21 @@ public abstract class Classes {
 	@SuppressWarnings("null")
 	private final static Charset UTF_8 = Charset.forName("UTF-8");
 	
+	/**
+	 * Caches {@link #getYggdrasilStart(ClassInfo)}, as class IDs don't change after classes have been registered.
+	 */
+	private final static Map<ClassInfo<?>, byte[]> yggdrasilStarts = new ConcurrentHashMap<>();
+	
 	private static byte[] getYggdrasilStart(final ClassInfo<?> c) throws NotSerializableException {
+		byte[] start = yggdrasilStarts.get(c);
+		if (start == null) {
+			start = createYggdrasilStart(c);
+			yggdrasilStarts.put(c, start);
+		}
+		return start;
+	}
+	
+	private static byte[] createYggdrasilStart(final ClassInfo<?> c) throws NotSerializableException {
 		assert Enum.class.isAssignableFrom(Kleenean.class) && Tag.getType(Kleenean.class) == Tag.T_ENUM : Tag.getType(Kleenean.class); // TODO why is this check here?
 		final Tag t = Tag.getType(c.getC());
 		assert t.isWrapper() || t == Tag.T_STRING || t == Tag.T_OBJECT || t == Tag.T_ENUM;
@@ -670,13 +776,195 @@ public abstract class Classes {
 		return r;
 	}
 	
+	/**
+	 * A buffer whose contents can be accessed without copying them.
+	 */
+	private final static class SerializationBuffer extends ByteArrayOutputStream {
+		
+		SerializationBuffer() {
+			super(256);
+		}
+		
+		int capacity() {
+			return buf.length;
+		}
+		
+		ByteBuffer view(final int offset) {
+			final ByteBuffer r = ByteBuffer.wrap(buf, offset, count - offset).slice();
+			assert r != null;
+			return r;
+		}
+	}
+	
+	/**
+	 * Input stream that reads a header and then data, without copying either of them. Can be pointed to new data.
+	 */
+	private final static class SerializedInput extends InputStream {
+		
+		private byte[] header = new byte[0], data = new byte[0];
+		private int pos;
+		
+		void set(final byte[] header, final byte[] data) {
+			this.header = header;
+			this.data = data;
+			pos = 0;
+		}
+		
+		@Override
+		public int read() {
+			final int i = pos;
+			if (i < header.length) {
+				pos++;
+				return header[i] & 0xFF;
+			}
+			if (i - header.length < data.length) {
+				pos++;
+				return data[i - header.length] & 0xFF;
+			}
+			return -1;
+		}
+		
+		@Override
+		public int read(final byte[] b, final int off, final int len) {
+			if (len == 0)
+				return 0;
+			int i = pos;
+			final byte[] source;
+			if (i < header.length) {
+				source = header;
+			} else {
+				source = data;
+				i -= header.length;
+			}
+			final int n = Math.min(len, source.length - i);
+			if (n <= 0)
+				return -1;
+			System.arraycopy(source, i, b, off, n);
+			pos += n;
+			return n;
+		}
+		
+		@Override
+		public int available() {
+			return header.length + data.length - pos;
+		}
+	}
+	
+	/**
+	 * Buffers and Yggdrasil streams reused by serialisations on one thread.
+	 */
+	private final static class SerializationContext {
+		
+		/**
+		 * Contexts with larger buffers are not kept after use, so that serialising a single huge value doesn't keep the memory allocated.
+		 */
+		private final static int MAX_RETAINED_CAPACITY = 1 << 16;
+		
+		private final static ThreadLocal<SerializationContext> contexts = new ThreadLocal<>();
+		
+		final SerializationBuffer buffer = new SerializationBuffer();
+		final DefaultYggdrasilOutputStream out;
+		
+		private SerializationContext() throws IOException {
+			out = new DefaultYggdrasilOutputStream(Variables.yggdrasil, buffer);
+		}
+		
+		/**
+		 * Gets this thread's context, or a new one if it is already in use (i.e. a value is serialised while serialising another value).
+		 */
+		static SerializationContext acquire() throws IOException {
+			final SerializationContext c = contexts.get();
+			if (c == null)
+				return new SerializationContext();
+			contexts.remove();
+			return c;
+		}
+		
+		/**
+		 * Keeps this context for the next value serialised by this thread. The stream is reset right away, so that it doesn't keep the last serialised
+		 * objects reachable until then.
+		 */
+		void release() {
+			if (buffer.capacity() > MAX_RETAINED_CAPACITY)
+				return;
+			try {
+				buffer.reset();
+				out.reset();
+			} catch (final IOException e) { // shouldn't happen
+				return;
+			}
+			contexts.set(this);
+		}
+	}
+	
+	/**
+	 * Yggdrasil stream reused by deserialisations on one thread.
+	 */
+	private final static class DeserializationContext {
+		
+		private final static ThreadLocal<DeserializationContext> contexts = new ThreadLocal<>();
+		
+		final SerializedInput input = new SerializedInput();
+		@Nullable
+		private DefaultYggdrasilInputStream in;
+		
+		/**
+		 * Gets this thread's context, or a new one if it is already in use (i.e. a value is deserialised while deserialising another value).
+		 */
+		static DeserializationContext acquire() {
+			final DeserializationContext c = contexts.get();
+			if (c == null)
+				return new DeserializationContext();
+			contexts.remove();
+			return c;
+		}
+		
+		/**
+		 * Points the stream to the given data.
+		 */
+		YggdrasilInputStream start(final byte[] header, final byte[] data) throws IOException {
+			input.set(header, data);
+			DefaultYggdrasilInputStream in = this.in;
+			if (in == null)
+				this.in = in = new DefaultYggdrasilInputStream(Variables.yggdrasil, input);
+			else
+				in.reset();
+			return in;
+		}
+		
+		void release() {
+			input.set(new byte[0], new byte[0]); // Don't keep data alive
+			contexts.set(this);
+		}
+	}
+	
 	/**
 	 * Must be called on the appropriate thread for the given value (i.e. the main thread currently)
 	 */
 	@Nullable
 	public static SerializedVariable.Value serialize(@Nullable Object o) {
+		final SerializedVariable.Value[] r = new SerializedVariable.Value[1];
+		serialize(o, (type, data) -> {
+			final byte[] d = new byte[data.remaining()];
+			data.get(d);
+			r[0] = new SerializedVariable.Value(type, d);
+		});
+		return r[0];
+	}
+	
+	/**
+	 * Serialises a value like {@link #serialize(Object)}, but doesn't copy the serialised data. Instead, the consumer gets a view of a buffer that is reused by
+	 * later serialisations, so it must not keep a reference to the buffer after it returns.
+	 * <p>
+	 * Must be called on the appropriate thread for the given value (i.e. the main thread currently)
+	 * 
+	 * @param o The value to serialise
+	 * @param consumer Gets the value's type's code name and its serialised data
+	 * @return Whether the value could be serialised, i.e. whether the consumer was called
+	 */
+	public static boolean serialize(@Nullable Object o, final BiConsumer<String, ByteBuffer> consumer) {
 		if (o == null)
-			return null;
+			return false;
 		
 		// temporary
 		assert Bukkit.isPrimaryThread();
@@ -686,44 +974,54 @@ public abstract class Classes {
 			ci = getExactClassInfo(ci.getSerializeAs());
 			if (ci == null) {
 				assert false : o.getClass();
-				return null;
+				return false;
 			}
 			o = Converters.convert(o, ci.getC());
 			if (o == null) {
 				assert false : ci.getCodeName();
-				return null;
+				return false;
 			}
 		}
 		
 		final Serializer<?> s = ci.getSerializer();
 		if (s == null) // value cannot be saved
-			return null;
+			return false;
 		
 		assert s.mustSyncDeserialization() ? Bukkit.isPrimaryThread() : true;
 		
+		final SerializationContext context;
+		final ByteBuffer data;
 		try {
-			final ByteArrayOutputStream bout = new ByteArrayOutputStream();
-			final YggdrasilOutputStream yout = Variables.yggdrasil.newOutputStream(bout);
-			yout.writeObject(o);
-			yout.flush();
-			yout.close();
-			final byte[] r = bout.toByteArray();
+			context = SerializationContext.acquire();
+			context.out.writeObject(o);
+			context.out.flush();
 			final byte[] start = getYggdrasilStart(ci);
+			final ByteBuffer r = context.buffer.view(0);
 			for (int i = 0; i < start.length; i++)
-				assert r[i] == start[i] : o + " (" + ci.getC().getName() + "); " + Arrays.toString(start) + ", " + Arrays.toString(r);
-			final byte[] r2 = new byte[r.length - start.length];
-			System.arraycopy(r, start.length, r2, 0, r2.length);
-			
-			Object d;
-			assert equals(o, d = deserialize(ci, new ByteArrayInputStream(r2))) : o + " (" + o.getClass() + ") != " + d + " (" + (d == null ? null : d.getClass()) + "): " + Arrays.toString(r);
-			
-			return new SerializedVariable.Value(ci.getCodeName(), r2);
+				assert r.get(i) == start[i] : o + " (" + ci.getC().getName() + "); " + Arrays.toString(start) + ", " + r;
+			data = context.buffer.view(start.length);
 		} catch (final IOException e) { // shouldn't happen
 			Skript.exception(e);
-			return null;
+			return false;
+		}
+		
+		try {
+			Object d;
+			assert equals(o, d = deserialize(ci, copy(data))) : o + " (" + o.getClass() + ") != " + d + " (" + (d == null ? null : d.getClass()) + "): " + data;
+			
+			consumer.accept(ci.getCodeName(), data);
+			return true;
+		} finally {
+			context.release();
 		}
 	}
 	
+	private static byte[] copy(final ByteBuffer data) {
+		final byte[] r = new byte[data.remaining()];
+		data.duplicate().get(r);
+		return r;
+	}
+	
 	private static boolean equals(final @Nullable Object o, final @Nullable Object d) {
 		if (o instanceof Chunk) { // CraftChunk does neither override equals nor is it a "coordinate-specific singleton" like Block
 			if (!(d instanceof Chunk))
@@ -736,7 +1034,18 @@ public abstract class Classes {
 	
 	@Nullable
 	public static Object deserialize(final ClassInfo<?> type, final byte[] value) {
-		return deserialize(type, new ByteArrayInputStream(value));
+		Serializer<?> s;
+		assert (s = type.getSerializer()) != null && (s.mustSyncDeserialization() ? Bukkit.isPrimaryThread() : true) : type + "; " + s + "; " + Bukkit.isPrimaryThread();
+		final DeserializationContext context = DeserializationContext.acquire();
+		try {
+			return context.start(getYggdrasilStart(type), value).readObject();
+		} catch (final IOException e) { // i.e. invalid save
+			if (Skript.testing())
+				e.printStackTrace();
+			return null;
+		} finally {
+			context.release();
+		}
 	}
 	
 	@Nullable
@@ -744,7 +1053,7 @@ public abstract class Classes {
 		final ClassInfo<?> ci = getClassInfoNoError(type);
 		if (ci == null)
 			return null;
-		return deserialize(ci, new ByteArrayInputStream(value));
+		return deserialize(ci, value);
 	}
 	
 	@Nullable
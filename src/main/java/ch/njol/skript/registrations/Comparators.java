@@ -21,6 +21,7 @@ package ch.njol.skript.registrations;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -80,7 +81,8 @@ public class Comparators {
 		return javaComparator;
 	}
 	
-	private final static Map<Pair<Class<?>, Class<?>>, Comparator<?, ?>> comparatorsQuickAccess = new HashMap<Pair<Class<?>, Class<?>>, Comparator<?, ?>>();
+	@SuppressWarnings("null")
+	private final static Map<Pair<Class<?>, Class<?>>, Comparator<?, ?>> comparatorsQuickAccess = Collections.synchronizedMap(new HashMap<Pair<Class<?>, Class<?>>, Comparator<?, ?>>());
 	
 	@SuppressWarnings("unchecked")
 	@Nullable
@@ -256,7 +256,8 @@ public abstract class Converters {
 			throw new ClassCastException();
 	}
 
-	private final static Map<Pair<Class<?>, Class<?>>, ConverterInfo<?, ?>> convertersCache = new HashMap<>();
+	@SuppressWarnings("null")
+	private final static Map<Pair<Class<?>, Class<?>>, ConverterInfo<?, ?>> convertersCache = Collections.synchronizedMap(new HashMap<>());
 	
 	/**
 	 * Tests whether a converter between the given classes exists.
@@ -20,7 +20,6 @@
 package ch.njol.skript.util;
 
 import java.util.Iterator;
-import java.util.NoSuchElementException;
 
 import org.bukkit.Chunk;
 import org.bukkit.Location;
@@ -106,46 +105,14 @@ public class AABB implements Iterable<Block> {
 	 */
 	@Override
 	public Iterator<Block> iterator() {
-		return new Iterator<Block>() {
-			private final int minX = Math2.ceilI(lowerBound.getX() - Skript.EPSILON),
-					minY = Math2.ceilI(lowerBound.getY() - Skript.EPSILON),
-					minZ = Math2.ceilI(lowerBound.getZ() - Skript.EPSILON);
-			private final int maxX = Math2.floorI(upperBound.getX() + Skript.EPSILON) - 1,
-					maxY = Math2.floorI(upperBound.getY() + Skript.EPSILON) - 1,
-					maxZ = Math2.floorI(upperBound.getZ() + Skript.EPSILON) - 1;
-			
-			private int x = minX - 1,// next() increases x by one immediately
-					y = minY,
-					z = minZ;
-			
-			@Override
-			public boolean hasNext() {
-				return y <= maxY && (x != maxX || y != maxY || z != maxZ);
-			}
-			
-			@Override
-			public Block next() {
-				if (!hasNext())
-					throw new NoSuchElementException();
-				x++;
-				if (x > maxX) {
-					x = minX;
-					z++;
-					if (z > maxZ) {
-						z = minZ;
-						y++;
-					}
-				}
-				if (y > maxY)
-					throw new NoSuchElementException();
-				return world.getBlockAt(x, y, z);
-			}
-			
-			@Override
-			public void remove() {
-				throw new UnsupportedOperationException();
-			}
-		};
+		return new ChunkedBlockIterator(world,
+				Math2.ceilI(lowerBound.getX() - Skript.EPSILON),
+				Math2.ceilI(lowerBound.getY() - Skript.EPSILON),
+				Math2.ceilI(lowerBound.getZ() - Skript.EPSILON),
+				Math2.floorI(upperBound.getX() + Skript.EPSILON) - 1,
+				Math2.floorI(upperBound.getY() + Skript.EPSILON) - 1,
+				Math2.floorI(upperBound.getZ() + Skript.EPSILON) - 1,
+				false);
 	}
 	
 	@Override
@@ -0,0 +1,195 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.eclipse.jdt.annotation.Nullable;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.aliases.ItemType;
+
+/**
+ * Sets many blocks at once. Changes are collected first and then placed in chunk section order, so that each chunk section is only
+ * visited once. If physics are enabled, each block is placed with physics like it would be when set on its own.
+ * <p>
+ * Lighting is computed by the server whenever a block changes and cannot be deferred through the API.
+ * <p>
+ * Large batches can be spread over several ticks with {@link #apply(long, Runnable)}.
+ */
+public class BlockEditBatch {
+	
+	private final static class Edit {
+		
+		final Block block;
+		
+		/**
+		 * Type to set the block to, or null for air.
+		 */
+		@Nullable
+		final ItemType type;
+		
+		Edit(final Block block, final @Nullable ItemType type) {
+			this.block = block;
+			this.type = type;
+		}
+	}
+	
+	/**
+	 * Orders blocks by world, chunk and chunk section, and then by their position in the section.
+	 */
+	private final static Comparator<Edit> chunkOrder = Comparator.<Edit, UUID> comparing(e -> e.block.getWorld().getUID())
+			.thenComparingInt(e -> e.block.getX() >> 4)
+			.thenComparingInt(e -> e.block.getZ() >> 4)
+			.thenComparingInt(e -> e.block.getY() >> 4)
+			.thenComparingInt(e -> e.block.getY())
+			.thenComparingInt(e -> e.block.getZ())
+			.thenComparingInt(e -> e.block.getX());
+	
+	/**
+	 * Batches smaller than this are always applied at once.
+	 */
+	private final static int MIN_SPREAD_SIZE = 1024;
+	
+	private final List<Edit> edits = new ArrayList<>();
+	private final boolean applyPhysics;
+	
+	/**
+	 * Number of blocks placed so far.
+	 */
+	private int done = 0;
+	
+	private boolean sorted = false;
+	
+	/**
+	 * @param applyPhysics Whether the changed blocks should be placed with physics
+	 */
+	public BlockEditBatch(final boolean applyPhysics) {
+		this.applyPhysics = applyPhysics;
+	}
+	
+	/**
+	 * Adds a block change to this batch. Blocks that are only views of a block in an event ({@link DelayedChangeBlock},
+	 * {@link BlockStateBlock}) are changed immediately, as they handle their changes themselves.
+	 * 
+	 * @param block The block to change
+	 * @param type The type to set it to, or null to set it to air
+	 */
+	public void set(final Block block, final @Nullable ItemType type) {
+		if (sorted)
+			throw new IllegalStateException("Batch is already being applied");
+		if (block instanceof DelayedChangeBlock || block instanceof BlockStateBlock) {
+			place(block, type, applyPhysics);
+			return;
+		}
+		edits.add(new Edit(block, type));
+	}
+	
+	/**
+	 * @return Number of block changes in this batch
+	 */
+	public int size() {
+		return edits.size();
+	}
+	
+	/**
+	 * @return Number of blocks placed so far, out of {@link #size()}
+	 */
+	public int getDone() {
+		return done;
+	}
+	
+	public boolean isDone() {
+		return done == edits.size();
+	}
+	
+	/**
+	 * Applies all changes now.
+	 */
+	public void apply() {
+		sort();
+		while (!isDone())
+			step();
+	}
+	
+	/**
+	 * Applies changes until the given time budget is used up, and continues on following ticks until all changes are done.
+	 * Must be called on the main thread.
+	 * 
+	 * @param budget Time budget per tick in milliseconds. Batches are applied at once if this is not positive or the batch is small.
+	 * @param onDone Called when all changes have been applied, which may be right away
+	 */
+	public void apply(final long budget, final @Nullable Runnable onDone) {
+		if (budget <= 0 || edits.size() < MIN_SPREAD_SIZE) {
+			apply();
+			if (onDone != null)
+				onDone.run();
+			return;
+		}
+		sort();
+		new Runnable() {
+			@Override
+			public void run() {
+				final long end = System.nanoTime() + budget * 1000000L;
+				while (!isDone() && System.nanoTime() < end) {
+					for (int i = 0; i < 64 && !isDone(); i++) // Don't check the time for every block
+						step();
+				}
+				if (isDone()) {
+					if (Skript.logHigh())
+						Skript.info("Changed " + edits.size() + " blocks");
+					if (onDone != null)
+						onDone.run();
+				} else {
+					if (Skript.logHigh())
+						Skript.info("Changing blocks: " + done + "/" + edits.size());
+					Bukkit.getScheduler().scheduleSyncDelayedTask(Skript.getInstance(), this);
+				}
+			}
+		}.run();
+	}
+	
+	private void sort() {
+		if (sorted)
+			return;
+		edits.sort(chunkOrder);
+		sorted = true;
+	}
+	
+	private void step() {
+		final Edit edit = edits.get(done);
+		place(edit.block, edit.type, applyPhysics);
+		done++;
+	}
+	
+	private static void place(final Block block, final @Nullable ItemType type, final boolean applyPhysics) {
+		if (type == null)
+			block.setType(Material.AIR, applyPhysics);
+		else
+			type.getBlock().setBlock(block, applyPhysics);
+	}
+	
+}
@@ -44,12 +44,13 @@ public class BlockLineIterator extends StoppableIterator<Block> {
 		super(new BlockIterator(start.getWorld(), fitInWorld(start.getLocation().add(0.5, 0.5, 0.5), end.getLocation().subtract(start.getLocation()).toVector()),
 				end.equals(start) ? new Vector(1, 0, 0) : end.getLocation().subtract(start.getLocation()).toVector(), 0, 0), // should prevent an error if start = end
 		new NullableChecker<Block>() {
-			private final double overshotSq = Math.pow(start.getLocation().distance(end.getLocation()) + 2, 2);
+			private final int x = start.getX(), y = start.getY(), z = start.getZ();
+			private final double overshotSq = Math.pow(Math.sqrt(distanceSquared(end.getX() - x, end.getY() - y, end.getZ() - z)) + 2, 2);
 			
 			@Override
 			public boolean check(final @Nullable Block b) {
 				assert b != null;
-				if (b.getLocation().distanceSquared(start.getLocation()) > overshotSq)
+				if (distanceSquared(b.getX() - x, b.getY() - y, b.getZ() - z) > overshotSq)
 					throw new IllegalStateException("BlockLineIterator missed the end block!");
 				return b.equals(end);
 			}
@@ -65,10 +66,11 @@ public class BlockLineIterator extends StoppableIterator<Block> {
 	public BlockLineIterator(final Location start, final Vector dir, final double dist) throws IllegalStateException {
 		super(new BlockIterator(start.getWorld(), fitInWorld(start, dir), dir, 0, 0), new NullableChecker<Block>() {
 			private final double distSq = dist * dist;
+			private final double x = start.getX() - 0.5, y = start.getY() - 0.5, z = start.getZ() - 0.5;
 			
 			@Override
 			public boolean check(final @Nullable Block b) {
-				return b != null && b.getLocation().add(0.5, 0.5, 0.5).distanceSquared(start) >= distSq;
+				return b != null && distanceSquared(b.getX() - x, b.getY() - y, b.getZ() - z) >= distSq;
 			}
 		}, false);
 	}
@@ -83,6 +85,14 @@ public class BlockLineIterator extends StoppableIterator<Block> {
 		this(start.getLocation().add(0.5, 0.5, 0.5), dir, dist);
 	}
 	
+	/**
+	 * Compares block coordinates directly, as creating a location for every
+	 * block of a long line is much more expensive than the check itself.
+	 */
+	private static double distanceSquared(final double dx, final double dy, final double dz) {
+		return dx * dx + dy * dy + dz * dz;
+	}
+	
 	private static Vector fitInWorld(final Location l, final Vector dir) {
 		if (0 <= l.getBlockY() && l.getBlockY() < l.getWorld().getMaxHeight())
 			return l.toVector();
@@ -20,26 +20,40 @@
 package ch.njol.skript.util;
 
 import org.bukkit.Location;
-import org.bukkit.block.Block;
-import org.eclipse.jdt.annotation.Nullable;
 
 import ch.njol.skript.Skript;
-import ch.njol.util.NullableChecker;
-import ch.njol.util.coll.iterator.CheckedIterator;
+import ch.njol.util.Math2;
 
 /**
+ * Iterates over the blocks whose centers are in a sphere. Blocks in unloaded chunks are left out.
+ * 
  * @author Peter Güttinger
  */
-public class BlockSphereIterator extends CheckedIterator<Block> {
+public class BlockSphereIterator extends ChunkedBlockIterator {
 	
+	private final double centerX, centerY, centerZ;
+	private final double rSquared;
+	
+	@SuppressWarnings("null")
 	public BlockSphereIterator(final Location center, final double radius) {
-		super(new AABB(center, radius + 0.5001, radius + 0.5001, radius + 0.5001).iterator(), new NullableChecker<Block>() {
-			private final double rSquared = radius * radius * Skript.EPSILON_MULT;
-			
-			@Override
-			public boolean check(final @Nullable Block b) {
-				return b != null && center.distanceSquared(b.getLocation().add(0.5, 0.5, 0.5)) < rSquared;
-			}
-		});
+		super(center.getWorld(),
+				Math2.ceilI(center.getX() - radius - 0.5001 - Skript.EPSILON),
+				Math.max(Math2.ceilI(center.getY() - radius - 0.5001 - Skript.EPSILON), 0),
+				Math2.ceilI(center.getZ() - radius - 0.5001 - Skript.EPSILON),
+				Math2.floorI(center.getX() + radius + 0.5001 + Skript.EPSILON) - 1,
+				Math.min(Math2.floorI(center.getY() + radius + 0.5001 + Skript.EPSILON), center.getWorld().getMaxHeight()) - 1,
+				Math2.floorI(center.getZ() + radius + 0.5001 + Skript.EPSILON) - 1,
+				true);
+		centerX = center.getX();
+		centerY = center.getY();
+		centerZ = center.getZ();
+		rSquared = radius * radius * Skript.EPSILON_MULT;
+	}
+	
+	@Override
+	protected boolean accept(final int x, final int y, final int z) {
+		final double dx = x + 0.5 - centerX, dy = y + 0.5 - centerY, dz = z + 0.5 - centerZ;
+		return dx * dx + dy * dy + dz * dz < rSquared;
 	}
+	
 }
@@ -0,0 +1,181 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.util;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.bukkit.World;
+import org.bukkit.block.Block;
+
+/**
+ * Iterates over the blocks in a cuboid chunk by chunk, so that each chunk is only visited once. Positions are checked with
+ * {@link #accept(int, int, int)} before a {@link Block} is created for them, so blocks that are left out are never created.
+ * <p>
+ * Blocks in a chunk are returned layer by layer, starting at the bottom.
+ */
+public class ChunkedBlockIterator implements Iterator<Block> {
+	
+	protected final World world;
+	
+	private final int minX, minY, minZ, maxX, maxY, maxZ;
+	private final int maxChunkX, minChunkZ, maxChunkZ;
+	private final boolean skipUnloaded;
+	
+	/**
+	 * Current chunk.
+	 */
+	private int chunkX, chunkZ;
+	
+	/**
+	 * Bounds of the current chunk's part of the cuboid.
+	 */
+	private int chunkMinX, chunkMaxX, chunkMinZ, chunkMaxZ;
+	
+	/**
+	 * Position of the next block, or the last checked position if {@link #hasNext} is false.
+	 */
+	private int x, y, z;
+	private boolean hasNext;
+	
+	/**
+	 * Whether the first position has been searched for. This is not done in the constructor, as subclasses may need to initialise
+	 * fields used by {@link #accept(int, int, int)} first.
+	 */
+	private boolean started = false;
+	
+	/**
+	 * Creates an iterator over all blocks between two corners (inclusive).
+	 * 
+	 * @param world The world of the blocks
+	 * @param skipUnloaded Whether blocks in unloaded chunks should be left out instead of loading their chunks
+	 */
+	public ChunkedBlockIterator(final World world, final int minX, final int minY, final int minZ, final int maxX, final int maxY, final int maxZ,
+			final boolean skipUnloaded) {
+		this.world = world;
+		this.minX = minX;
+		this.minY = minY;
+		this.minZ = minZ;
+		this.maxX = maxX;
+		this.maxY = maxY;
+		this.maxZ = maxZ;
+		this.skipUnloaded = skipUnloaded;
+		maxChunkX = maxX >> 4;
+		minChunkZ = minZ >> 4;
+		maxChunkZ = maxZ >> 4;
+	}
+	
+	private void start() {
+		started = true;
+		if (minX > maxX || minY > maxY || minZ > maxZ) {
+			hasNext = false;
+			return;
+		}
+		chunkX = minX >> 4;
+		chunkZ = minChunkZ;
+		hasNext = startChunk() || findNextChunk();
+	}
+	
+	/**
+	 * Checks whether the block at the given position should be returned.
+	 * 
+	 * @return Whether to return the block, true by default
+	 */
+	protected boolean accept(final int x, final int y, final int z) {
+		return true;
+	}
+	
+	/**
+	 * Moves to the first accepted position of the current chunk.
+	 * 
+	 * @return Whether there is one
+	 */
+	private boolean startChunk() {
+		if (skipUnloaded && !world.isChunkLoaded(chunkX, chunkZ))
+			return false;
+		chunkMinX = Math.max(minX, chunkX << 4);
+		chunkMaxX = Math.min(maxX, (chunkX << 4) + 15);
+		chunkMinZ = Math.max(minZ, chunkZ << 4);
+		chunkMaxZ = Math.min(maxZ, (chunkZ << 4) + 15);
+		x = chunkMinX;
+		y = minY;
+		z = chunkMinZ;
+		return accept(x, y, z) || findNextInChunk();
+	}
+	
+	/**
+	 * Moves to the next accepted position in the current chunk.
+	 * 
+	 * @return Whether there is one
+	 */
+	private boolean findNextInChunk() {
+		while (true) {
+			if (++x > chunkMaxX) {
+				x = chunkMinX;
+				if (++z > chunkMaxZ) {
+					z = chunkMinZ;
+					if (++y > maxY)
+						return false;
+				}
+			}
+			if (accept(x, y, z))
+				return true;
+		}
+	}
+	
+	/**
+	 * Moves to the first accepted position in one of the following chunks.
+	 * 
+	 * @return Whether there is one
+	 */
+	private boolean findNextChunk() {
+		while (true) {
+			if (++chunkZ > maxChunkZ) {
+				chunkZ = minChunkZ;
+				if (++chunkX > maxChunkX)
+					return false;
+			}
+			if (startChunk())
+				return true;
+		}
+	}
+	
+	@Override
+	public boolean hasNext() {
+		if (!started)
+			start();
+		return hasNext;
+	}
+	
+	@Override
+	public Block next() {
+		if (!hasNext())
+			throw new NoSuchElementException();
+		final Block b = world.getBlockAt(x, y, z);
+		hasNext = findNextInChunk() || findNextChunk();
+		return b;
+	}
+	
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+	
+}
@@ -0,0 +1,170 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.util;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.EventExecutor;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.SkriptConfig;
+
+/**
+ * Caches results of {@link Player#hasPermission(String)} for each player, as permission plugins that resolve wildcards and inheritance
+ * can make these checks expensive.
+ * <p>
+ * Bukkit doesn't tell when permissions change, so all results of a player are forgotten after a given time, and when the player changes
+ * worlds (as permissions may depend on the world) or leaves. Changes made by Skript itself, e.g. of a player's groups, should call
+ * {@link #invalidate(OfflinePlayer)}. Thread safe.
+ */
+public final class PermissionCache {
+	
+	private final static PermissionCache shared = new PermissionCache();
+	
+	private static boolean registeredListeners = false;
+	
+	/**
+	 * Checks whether a command sender has a permission, using the shared cache if a permission cache time is set in the config.
+	 */
+	public static boolean hasPermission(final CommandSender sender, final String permission) {
+		final long lifetime = SkriptConfig.permissionCacheTime.value().getMilliSeconds();
+		if (lifetime <= 0 || !(sender instanceof Player))
+			return sender.hasPermission(permission);
+		if (!registeredListeners) {
+			if (!Bukkit.isPrimaryThread()) // Results can't be cached until the cache is told about players leaving
+				return sender.hasPermission(permission);
+			registerListeners();
+		}
+		return shared.hasPermission((Player) sender, permission, System.currentTimeMillis(), lifetime);
+	}
+	
+	/**
+	 * @return The cache used by {@link #hasPermission(CommandSender, String)}
+	 */
+	public static PermissionCache getShared() {
+		return shared;
+	}
+	
+	private static void registerListeners() {
+		final EventExecutor executor = (l, e) -> shared.invalidate(((PlayerEvent) e).getPlayer());
+		Bukkit.getPluginManager().registerEvent(PlayerQuitEvent.class, new Listener() {}, EventPriority.MONITOR, executor, Skript.getInstance(), true);
+		Bukkit.getPluginManager().registerEvent(PlayerChangedWorldEvent.class, new Listener() {}, EventPriority.MONITOR, executor, Skript.getInstance(), true);
+		registeredListeners = true;
+	}
+	
+	private final static class Entry {
+		
+		/**
+		 * When this entry's results expire, in milliseconds.
+		 */
+		final long expires;
+		
+		final Map<String, Boolean> results = new ConcurrentHashMap<>();
+		
+		Entry(final long expires) {
+			this.expires = expires;
+		}
+	}
+	
+	private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+	
+	private final AtomicLong hits = new AtomicLong(), misses = new AtomicLong();
+	
+	/**
+	 * Checks whether a player has a permission, asking the player only if the result is not cached.
+	 * 
+	 * @param now Current time in milliseconds
+	 * @param lifetime How long the results of a player are kept, in milliseconds
+	 */
+	public boolean hasPermission(final Player p, final String permission, final long now, final long lifetime) {
+		final UUID id = p.getUniqueId();
+		Entry e = entries.get(id);
+		if (e == null || e.expires <= now) {
+			final Entry expired = e;
+			e = new Entry(now + lifetime);
+			if (expired == null ? entries.putIfAbsent(id, e) != null : !entries.replace(id, expired, e))
+				e = entries.get(id);
+			if (e == null) // removed by another thread just now
+				return miss(p, permission);
+		}
+		final Boolean result = e.results.get(permission);
+		if (result != null) {
+			hits.incrementAndGet();
+			return result;
+		}
+		final boolean has = miss(p, permission);
+		e.results.put(permission, has);
+		return has;
+	}
+	
+	private boolean miss(final Player p, final String permission) {
+		misses.incrementAndGet();
+		return p.hasPermission(permission);
+	}
+	
+	/**
+	 * Forgets all cached results of a player.
+	 */
+	public void invalidate(final OfflinePlayer p) {
+		entries.remove(p.getUniqueId());
+	}
+	
+	/**
+	 * Forgets all cached results.
+	 */
+	public void clear() {
+		entries.clear();
+	}
+	
+	/**
+	 * @return How many checks were answered from the cache
+	 */
+	public long getHits() {
+		return hits.get();
+	}
+	
+	/**
+	 * @return How many checks had to ask the player
+	 */
+	public long getMisses() {
+		return misses.get();
+	}
+	
+	/**
+	 * @return The ratio of checks answered from the cache, or 0 if nothing was checked yet
+	 */
+	public double getHitRate() {
+		final long hits = this.hits.get(), total = hits + misses.get();
+		return total == 0 ? 0 : (double) hits / total;
+	}
+	
+}
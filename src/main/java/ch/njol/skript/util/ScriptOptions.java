@@ -66,26 +66,26 @@ public final class ScriptOptions {
 	}
 	
 	@SuppressWarnings("null")
-	public static ScriptOptions getInstance(){
+	public static synchronized ScriptOptions getInstance(){
 		return instance != null ? instance : new ScriptOptions();
 	}
 	
-	public boolean usesNewLoops(File file){
+	public synchronized boolean usesNewLoops(File file){
 		if(usesNewLoops.containsKey(file))
 			return usesNewLoops.get(file);
 		return true;
 	}
 	
-	public void setUsesNewLoops(File file, boolean b){
+	public synchronized void setUsesNewLoops(File file, boolean b){
 		usesNewLoops.put(file, b);
 	}
 	
-	public boolean suppressesWarning(@Nullable File scriptFile, String warning) {
+	public synchronized boolean suppressesWarning(@Nullable File scriptFile, String warning) {
 		Set<String> suppressed = localWarningSuppression.get(scriptFile);
 		return suppressed != null && suppressed.contains(warning);
 	}
 	
- 	public void setSuppressWarning(@Nullable File scriptFile, String warning) {
+ 	public synchronized void setSuppressWarning(@Nullable File scriptFile, String warning) {
  		localWarningSuppression.computeIfAbsent(scriptFile, k -> new HashSet<>()).add(warning);
 	}
 }
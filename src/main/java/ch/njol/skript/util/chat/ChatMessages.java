@@ -29,6 +29,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 import org.eclipse.jdt.annotation.Nullable;
@@ -83,6 +84,29 @@ public class ChatMessages {
 	 */
 	static final Gson gson;
 	
+	/**
+	 * Maximum number of parsed messages that are cached.
+	 */
+	private static final int MAX_CACHED = 4096;
+	
+	/**
+	 * Messages longer than this are not cached.
+	 */
+	private static final int MAX_CACHED_LENGTH = 1024;
+	
+	/**
+	 * Parsed messages. Components in this cache are never modified; callers
+	 * of {@link #parse(String)} get copies of them.
+	 */
+	private static final Map<String, MessageComponent[]> parseCache = new ConcurrentHashMap<>();
+	
+	/**
+	 * Settings that the cached messages were parsed with.
+	 */
+	@Nullable
+	private static volatile LinkParseMode cachedLinkParseMode;
+	private static volatile boolean cachedColorResetCodes;
+	
 	/**
 	 * Registers language change listener for chat system.
 	 * Called once by Skript, please don't call this addon developers.
@@ -94,6 +118,7 @@ public class ChatMessages {
 			@Override
 			public void onLanguageChange() {
 				codes.clear();
+				parseCache.clear(); // Tag names might have changed
 				
 				Skript.debug("Parsing message style lang files");
 				for (SkriptChatCode code : SkriptChatCode.values()) {
@@ -162,7 +187,6 @@ public class ChatMessages {
 			this.extra = components;
 		}
 		
-		@SuppressWarnings("unused")
 		public ComponentList(MessageComponent[] components) {
 			this.extra = Arrays.asList(components);
 		}
@@ -187,8 +211,44 @@ public class ChatMessages {
 	 * @param msg Input string.
 	 * @return List with components.
 	 */
-	@SuppressWarnings("null")
 	public static List<MessageComponent> parse(String msg) {
+		MessageComponent[] parsed = parseCached(msg);
+		List<MessageComponent> components = new ArrayList<>(parsed.length);
+		for (MessageComponent component : parsed)
+			components.add(component.copy());
+		return components;
+	}
+	
+	/**
+	 * Parses a string to chat message components, or gets them from the parse
+	 * cache. The returned components may be shared, so they must not be
+	 * modified.
+	 * @param msg Input string.
+	 * @return Components of the message.
+	 */
+	static MessageComponent[] parseCached(String msg) {
+		if (msg.length() > MAX_CACHED_LENGTH)
+			return parseUncached(msg).toArray(new MessageComponent[0]);
+		
+		// Config reloads might change how messages are parsed
+		if (cachedLinkParseMode != linkParseMode || cachedColorResetCodes != colorResetCodes) {
+			parseCache.clear();
+			cachedLinkParseMode = linkParseMode;
+			cachedColorResetCodes = colorResetCodes;
+		}
+		
+		MessageComponent[] parsed = parseCache.get(msg);
+		if (parsed == null) {
+			parsed = parseUncached(msg).toArray(new MessageComponent[0]);
+			if (parseCache.size() >= MAX_CACHED)
+				parseCache.clear(); // Cheaper than tracking usage, and the messages in use are parsed again soon
+			parseCache.put(msg, parsed);
+		}
+		return parsed;
+	}
+	
+	@SuppressWarnings("null")
+	private static List<MessageComponent> parseUncached(String msg) {
 		char[] chars = msg.toCharArray();
 		
 		List<MessageComponent> components = new ArrayList<>();
@@ -414,7 +474,7 @@ public class ChatMessages {
 	}
 	
 	public static String toJson(String msg) {
-		ComponentList componentList = new ComponentList(parse(msg));
+		ComponentList componentList = new ComponentList(parseCached(msg)); // Only read by GSON
 		String json = gson.toJson(componentList);
 		assert json != null;
 		return json;
@@ -494,6 +554,7 @@ public class ChatMessages {
 		
 		addonCodes.add(code); // So that language reloads don't break everything
 		registerChatCode(code);
+		parseCache.clear();
 	}
 	
 	/**
@@ -502,7 +563,7 @@ public class ChatMessages {
 	 * @return A string without styles.
 	 */
 	public static String stripStyles(String text) {
-		List<MessageComponent> components = parse(text);
+		MessageComponent[] components = parseCached(text);
 		StringBuilder sb = new StringBuilder();
 		for (MessageComponent component : components) {
 			sb.append(component.text);
@@ -150,6 +150,27 @@ public class MessageComponent {
 	@Nullable
 	public HoverEvent hoverEvent;
 	
+	/**
+	 * Creates a copy of this component. Click and hover events are shared
+	 * with the copy, like {@link ChatMessages#copyStyles} does.
+	 * @return A new component.
+	 */
+	public MessageComponent copy() {
+		MessageComponent copy = new MessageComponent();
+		copy.text = text;
+		copy.reset = reset;
+		copy.bold = bold;
+		copy.italic = italic;
+		copy.underlined = underlined;
+		copy.strikethrough = strikethrough;
+		copy.obfuscated = obfuscated;
+		copy.color = color;
+		copy.insertion = insertion;
+		copy.clickEvent = clickEvent;
+		copy.hoverEvent = hoverEvent;
+		return copy;
+	}
+	
 	public static class BooleanSerializer implements JsonSerializer<Boolean> {
 
 		@Override
@@ -27,8 +27,11 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -76,6 +79,33 @@ public class FlatFileStorage extends VariablesStorage {
 	
 	private boolean loadError = false;
 	
+	/**
+	 * Serialised form of a value, as written by the last full save.
+	 */
+	private final static class SerializedValue {
+		
+		final Object value;
+		final String type;
+		final byte[] data;
+		
+		SerializedValue(final Object value, final String type, final byte[] data) {
+			this.value = value;
+			this.type = type;
+			this.data = data;
+		}
+	}
+	
+	/**
+	 * Serialised values smaller than this are not cached, as they are cheaper to serialise again than to keep in memory.
+	 */
+	private final static int MIN_CACHED_SIZE = 64;
+	
+	/**
+	 * Large immutable values written by the last full save, by variable name. If a variable still has the same value object on the next save, its cached
+	 * data is written instead of serialising the value again. Only used while holding {@link #connectionLock}.
+	 */
+	private Map<String, SerializedValue> serializedValues = new HashMap<>();
+	
 	protected FlatFileStorage(final String name) {
 		super(name);
 	}
@@ -220,11 +250,25 @@ public class FlatFileStorage extends VariablesStorage {
 		return new File(file);
 	}
 	
+	/**
+	 * Checks whether the serialised form of a value can only change if the variable is set to another value.
+	 */
+	private static boolean isImmutable(final Object o) {
+		return o instanceof String || o instanceof Long || o instanceof Double || o instanceof Integer || o instanceof Float
+				|| o instanceof Short || o instanceof Byte || o instanceof Boolean || o instanceof Enum;
+	}
+	
 	static String encode(final byte[] data) {
-		final char[] r = new char[data.length * 2];
-		for (int i = 0; i < data.length; i++) {
-			r[2 * i] = Character.toUpperCase(Character.forDigit((data[i] & 0xF0) >>> 4, 16));
-			r[2 * i + 1] = Character.toUpperCase(Character.forDigit(data[i] & 0xF, 16));
+		return encode(ByteBuffer.wrap(data));
+	}
+	
+	static String encode(final ByteBuffer data) {
+		final int start = data.position();
+		final char[] r = new char[data.remaining() * 2];
+		for (int i = 0; i < r.length / 2; i++) {
+			final byte b = data.get(start + i);
+			r[2 * i] = Character.toUpperCase(Character.forDigit((b & 0xF0) >>> 4, 16));
+			r[2 * i + 1] = Character.toUpperCase(Character.forDigit(b & 0xF, 16));
 		}
 		return new String(r);
 	}
@@ -384,11 +428,13 @@ public class FlatFileStorage extends VariablesStorage {
 						pw.println("#");
 						pw.println("# version: " + Skript.getVersion());
 						pw.println();
-						save(pw, "", Variables.getVariables());
+						final Map<String, SerializedValue> serialized = new HashMap<>(serializedValues.size());
+						save(pw, "", Variables.getVariables(), serialized);
 						pw.println();
 						pw.flush();
 						pw.close();
 						FileUtils.move(tempFile, f, true);
+						serializedValues = finalSave ? new HashMap<>() : serialized;
 					} catch (final IOException e) {
 						Skript.error("Unable to make a final save of the database '" + databaseName + "' (no variables are lost): " + ExceptionUtils.toString(e)); // FIXME happens at random - check locks/threads
 					} finally {
@@ -422,23 +468,37 @@ public class FlatFileStorage extends VariablesStorage {
 	 * @param pw
 	 * @param parent The parent's name with {@link Variable#SEPARATOR} at the end
 	 * @param map
+	 * @param serialized Where to put serialised immutable values for the next save
 	 */
 	@SuppressWarnings("unchecked")
-	private final void save(final PrintWriter pw, final String parent, final TreeMap<String, Object> map) {
+	private final void save(final PrintWriter pw, final String parent, final TreeMap<String, Object> map, final Map<String, SerializedValue> serialized) {
 		outer: for (final Entry<String, Object> e : map.entrySet()) {
 			final Object val = e.getValue();
 			if (val == null)
 				continue;
 			if (val instanceof TreeMap) {
-				save(pw, parent + e.getKey() + Variable.SEPARATOR, (TreeMap<String, Object>) val);
+				save(pw, parent + e.getKey() + Variable.SEPARATOR, (TreeMap<String, Object>) val, serialized);
 			} else {
 				final String name = (e.getKey() == null ? parent.substring(0, parent.length() - Variable.SEPARATOR.length()) : parent + e.getKey());
 				for (final VariablesStorage s : Variables.storages) {
 					if (s.accept(name)) {
 						if (s == this) {
-							final SerializedVariable.Value value = Classes.serialize(val);
-							if (value != null)
-								writeCSV(pw, name, value.type, encode(value.data));
+							final SerializedValue cached = serializedValues.get(name);
+							if (cached != null && cached.value == val) { // Unchanged since last save
+								writeCSV(pw, name, cached.type, encode(cached.data));
+								serialized.put(name, cached);
+							} else if (isImmutable(val)) {
+								Classes.serialize(val, (type, data) -> {
+									if (data.remaining() >= MIN_CACHED_SIZE) {
+										final byte[] d = new byte[data.remaining()];
+										data.duplicate().get(d);
+										serialized.put(name, new SerializedValue(val, type, d));
+									}
+									writeCSV(pw, name, type, encode(data));
+								});
+							} else {
+								Classes.serialize(val, (type, data) -> writeCSV(pw, name, type, encode(data)));
+							}
 						}
 						continue outer;
 					}
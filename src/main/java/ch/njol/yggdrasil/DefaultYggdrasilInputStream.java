@@ -42,13 +42,30 @@ public final class DefaultYggdrasilInputStream extends YggdrasilInputStream {
 	@SuppressWarnings("null")
 	private final static Charset UTF_8 = Charset.forName("UTF-8");
 	
-	private final short version;
+	private short version;
 	
 	final InputStream in;
 	
 	public DefaultYggdrasilInputStream(final Yggdrasil y, final InputStream in) throws IOException {
 		super(y);
 		this.in = in;
+		readHeader();
+	}
+	
+	/**
+	 * Prepares this stream to read a new, independent object graph: forgets all read objects, field names and class IDs, and reads a new header.
+	 * <p>
+	 * This allows reusing a stream for many small objects, e.g. by pointing the underlying stream to new data and then resetting this stream.
+	 * 
+	 * @throws IOException
+	 */
+	public void reset() throws IOException {
+		clearReadObjects();
+		readShortStrings.clear();
+		readHeader();
+	}
+	
+	private void readHeader() throws IOException {
 		final int m = readInt();
 		if (m != Yggdrasil.MAGIC_NUMBER)
 			throw new StreamCorruptedException("Not an Yggdrasil stream");
@@ -45,6 +45,21 @@ public final class DefaultYggdrasilOutputStream extends YggdrasilOutputStream {
 		writeShort(version);
 	}
 	
+	/**
+	 * Prepares this stream to write a new, independent object graph: forgets all written objects, field names and class IDs, and writes a new header.
+	 * <p>
+	 * This allows reusing a stream for many small objects, e.g. by resetting a {@link java.io.ByteArrayOutputStream} and then this stream.
+	 * 
+	 * @throws IOException
+	 */
+	public void reset() throws IOException {
+		clearWrittenObjects();
+		writtenShortStrings.clear();
+		nextShortStringID = 0;
+		writeInt(Yggdrasil.MAGIC_NUMBER);
+		writeShort(version);
+	}
+	
 	// private
 	
 	private void write(final int b) throws IOException {
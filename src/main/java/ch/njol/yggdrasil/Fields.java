@@ -23,20 +23,17 @@ import java.io.NotSerializableException;
 import java.io.StreamCorruptedException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
-import java.util.Set;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
 import org.eclipse.jdt.annotation.Nullable;
 
 import ch.njol.yggdrasil.Fields.FieldContext; // required - wtf
+import ch.njol.yggdrasil.SerializationPlan.PlannedField;
 import ch.njol.yggdrasil.YggdrasilSerializable.YggdrasilRobustSerializable;
 
 @NotThreadSafe
@@ -62,10 +59,10 @@ public final class Fields implements Iterable<FieldContext> {
 			this.id = id;
 		}
 		
-		FieldContext(final Field f, final Object o) throws IllegalArgumentException, IllegalAccessException {
-			id = Yggdrasil.getID(f);
+		FieldContext(final PlannedField f, final Object o) {
+			id = f.id;
 			value = f.get(o);
-			isPrimitiveValue = f.getType().isPrimitive();
+			isPrimitiveValue = f.isPrimitive;
 		}
 		
 		public String getID() {
@@ -152,6 +149,17 @@ public final class Fields implements Iterable<FieldContext> {
 			}
 		}
 		
+		void setField(final Object o, final PlannedField f, final Yggdrasil y) throws StreamCorruptedException {
+			if (f.isPrimitive != isPrimitiveValue)
+				throw new StreamCorruptedException("The field " + id + " of " + f.field.getDeclaringClass() + " is " + (f.isPrimitive ? "" : "not ") + "primitive");
+			try {
+				f.set(o, value);
+			} catch (final IllegalArgumentException e) {
+				if (!(o instanceof YggdrasilRobustSerializable) || !((YggdrasilRobustSerializable) o).incompatibleField(f.field, this))
+					y.incompatibleField(o, f.field, this);
+			}
+		}
+		
 		@Override
 		public int hashCode() {
 			return id.hashCode();
@@ -195,11 +203,8 @@ public final class Fields implements Iterable<FieldContext> {
 	 */
 	public Fields(final Class<?> c, final Yggdrasil yggdrasil) throws NotSerializableException {
 		this.yggdrasil = yggdrasil;
-		for (final Field f : getFields(c)) {
-			assert f != null;
-			final String id = Yggdrasil.getID(f);
-			fields.put(id, new FieldContext(id));
-		}
+		for (final PlannedField f : SerializationPlan.get(c).fields)
+			fields.put(f.id, new FieldContext(f.id));
 	}
 	
 	/**
@@ -222,20 +227,10 @@ public final class Fields implements Iterable<FieldContext> {
 		this.yggdrasil = yggdrasil;
 		final Class<?> c = o.getClass();
 		assert c != null;
-		for (final Field f : getFields(c)) {
-			assert f != null;
-			try {
-				fields.put(Yggdrasil.getID(f), new FieldContext(f, o));
-			} catch (final IllegalArgumentException e) {
-				assert false;
-			} catch (final IllegalAccessException e) {
-				assert false;
-			}
-		}
+		for (final PlannedField f : SerializationPlan.get(c).fields)
+			fields.put(f.id, new FieldContext(f, o));
 	}
 	
-	private final static Map<Class<?>, Collection<Field>> cache = new HashMap<>();
-	
 	/**
 	 * Gets all serialisable fields of the provided class, including superclasses.
 	 * 
@@ -244,29 +239,7 @@ public final class Fields implements Iterable<FieldContext> {
 	 * @throws NotSerializableException If a field occurs more than once (i.e. if a class has a field with the same name as a field in one of its superclasses)
 	 */
 	public static Collection<Field> getFields(final Class<?> c) throws NotSerializableException {
-		Collection<Field> fields = cache.get(c);
-		if (fields != null)
-			return fields;
-		fields = new ArrayList<>();
-		final Set<String> ids = new HashSet<>();
-		for (Class<?> sc = c; sc != null; sc = sc.getSuperclass()) {
-			final Field[] fs = sc.getDeclaredFields();
-			for (final Field f : fs) {
-				final int m = f.getModifiers();
-				if (Modifier.isStatic(m) || Modifier.isTransient(m))
-					continue;
-				final String id = Yggdrasil.getID(f);
-				if (ids.contains(id))
-					throw new NotSerializableException(c + "/" + sc + ": duplicate field id '" + id + "'");
-				f.setAccessible(true);
-				fields.add(f);
-				ids.add(id);
-			}
-		}
-		fields = Collections.unmodifiableCollection(fields);
-		assert fields != null;
-		cache.put(c, fields);
-		return fields;
+		return SerializationPlan.get(c).reflectedFields;
 	}
 	
 	/**
@@ -281,23 +254,26 @@ public final class Fields implements Iterable<FieldContext> {
 		final Yggdrasil y = yggdrasil;
 		if (y == null)
 			throw new YggdrasilException("");
-		final Set<FieldContext> excessive = new HashSet<>(fields.values());
 		final Class<?> oc = o.getClass();
 		assert oc != null;
-		for (final Field f : getFields(oc)) {
-			assert f != null;
-			final String id = Yggdrasil.getID(f);
-			final FieldContext c = fields.get(id);
+		final SerializationPlan plan = SerializationPlan.get(oc);
+		int found = 0;
+		for (final PlannedField f : plan.fields) {
+			final FieldContext c = fields.get(f.id);
 			if (c == null) {
-				if (!(o instanceof YggdrasilRobustSerializable) || !((YggdrasilRobustSerializable) o).missingField(f))
-					y.missingField(o, f);
+				if (!(o instanceof YggdrasilRobustSerializable) || !((YggdrasilRobustSerializable) o).missingField(f.field))
+					y.missingField(o, f.field);
 			} else {
 				c.setField(o, f, y);
+				found++;
 			}
-			excessive.remove(c);
 		}
-		for (final FieldContext f : excessive) {
+		if (found == fields.size())
+			return;
+		for (final FieldContext f : fields.values()) {
 			assert f != null;
+			if (plan.get(f.id) != null)
+				continue;
 			if (!(o instanceof YggdrasilRobustSerializable) || !((YggdrasilRobustSerializable) o).excessiveField(f))
 				y.excessiveField(o, f);
 		}
@@ -0,0 +1,192 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.yggdrasil;
+
+import java.io.NotSerializableException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Serialisable fields of a class, with their IDs and accessors computed once when the class is first (de)serialised.
+ * <p>
+ * Plans are immutable and can be shared by any number of threads.
+ */
+@ThreadSafe
+final class SerializationPlan {
+	
+	private final static Map<Class<?>, SerializationPlan> plans = new ConcurrentHashMap<>();
+	
+	private final static MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	private final static MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+	
+	/**
+	 * Gets the plan of the given class, creating it if this has not been done yet.
+	 * 
+	 * @param c Some class
+	 * @return The plan of the class
+	 * @throws NotSerializableException If a field occurs more than once (i.e. if a class has a field with the same name as a field in one of its superclasses)
+	 */
+	static SerializationPlan get(final Class<?> c) throws NotSerializableException {
+		SerializationPlan plan = plans.get(c);
+		if (plan == null) {
+			plan = new SerializationPlan(c);
+			plans.put(c, plan);
+		}
+		return plan;
+	}
+	
+	/**
+	 * A serialisable field and its accessors.
+	 */
+	final static class PlannedField {
+		
+		final Field field;
+		final String id;
+		final boolean isPrimitive;
+		
+		private final MethodHandle getter;
+		
+		/** null if the field cannot be set with a method handle, in which case reflection is used */
+		@Nullable
+		private final MethodHandle setter;
+		
+		PlannedField(final Field f, final String id) {
+			field = f;
+			this.id = id;
+			isPrimitive = f.getType().isPrimitive();
+			final MethodHandles.Lookup lookup = MethodHandles.lookup();
+			try {
+				getter = lookup.unreflectGetter(f).asType(GETTER_TYPE);
+			} catch (final IllegalAccessException e) {
+				throw new YggdrasilException("Cannot access field " + id + " of " + f.getDeclaringClass(), e);
+			}
+			MethodHandle setter;
+			try {
+				setter = lookup.unreflectSetter(f).asType(SETTER_TYPE);
+			} catch (final IllegalAccessException e) {
+				setter = null;
+			}
+			this.setter = setter;
+		}
+		
+		/**
+		 * @param o An instance of the class of this field
+		 * @return The value of this field in the given object, with primitives wrapped
+		 */
+		@Nullable
+		Object get(final Object o) {
+			try {
+				return (Object) getter.invokeExact(o);
+			} catch (final RuntimeException | Error e) {
+				throw e;
+			} catch (final Throwable e) {
+				throw new YggdrasilException(e);
+			}
+		}
+		
+		/**
+		 * Sets this field in the given object.
+		 * 
+		 * @param o An instance of the class of this field
+		 * @param value The new value, with primitives wrapped
+		 * @throws IllegalArgumentException If the value is not compatible with this field's type
+		 */
+		void set(final Object o, final @Nullable Object value) throws IllegalArgumentException {
+			final MethodHandle setter = this.setter;
+			try {
+				if (setter != null)
+					setter.invokeExact(o, value);
+				else
+					field.set(o, value);
+			} catch (final ClassCastException | NullPointerException e) {
+				throw new IllegalArgumentException(e);
+			} catch (final IllegalAccessException e) {
+				assert false;
+			} catch (final RuntimeException | Error e) {
+				throw e;
+			} catch (final Throwable e) {
+				throw new YggdrasilException(e);
+			}
+		}
+	}
+	
+	/**
+	 * All non-static and non-transient fields of the class and its superclasses, in declaration order starting with the class itself.
+	 */
+	final PlannedField[] fields;
+	
+	/**
+	 * The same fields as {@link #fields}, as returned by {@link Fields#getFields(Class)}.
+	 */
+	final Collection<Field> reflectedFields;
+	
+	private final Map<String, PlannedField> byID;
+	
+	private SerializationPlan(final Class<?> c) throws NotSerializableException {
+		final List<PlannedField> fields = new ArrayList<>();
+		final List<Field> reflectedFields = new ArrayList<>();
+		final Map<String, PlannedField> byID = new HashMap<>();
+		for (Class<?> sc = c; sc != null; sc = sc.getSuperclass()) {
+			final Field[] fs = sc.getDeclaredFields();
+			for (final Field f : fs) {
+				final int m = f.getModifiers();
+				if (Modifier.isStatic(m) || Modifier.isTransient(m))
+					continue;
+				final String id = Yggdrasil.getID(f);
+				if (byID.containsKey(id))
+					throw new NotSerializableException(c + "/" + sc + ": duplicate field id '" + id + "'");
+				f.setAccessible(true);
+				final PlannedField pf = new PlannedField(f, id);
+				fields.add(pf);
+				reflectedFields.add(f);
+				byID.put(id, pf);
+			}
+		}
+		this.fields = fields.toArray(new PlannedField[fields.size()]);
+		final Collection<Field> unmodifiable = Collections.unmodifiableCollection(reflectedFields);
+		assert unmodifiable != null;
+		this.reflectedFields = unmodifiable;
+		this.byID = byID;
+	}
+	
+	/**
+	 * @param id A field's id
+	 * @return The field with the given id, or null if the class has no such field
+	 */
+	@Nullable
+	PlannedField get(final String id) {
+		return byID.get(id);
+	}
+	
+}
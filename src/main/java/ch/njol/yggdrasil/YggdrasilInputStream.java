@@ -135,6 +135,13 @@ public abstract class YggdrasilInputStream implements Closeable {
 	
 	private final List<Object> readObjects = new ArrayList<>();
 	
+	/**
+	 * Forgets all read objects, as they cannot be referenced by a new object graph.
+	 */
+	final void clearReadObjects() {
+		readObjects.clear();
+	}
+	
 	@Nullable
 	public final Object readObject() throws IOException {
 		final Tag t = readTag();
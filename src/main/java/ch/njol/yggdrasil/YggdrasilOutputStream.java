@@ -188,7 +188,10 @@ public abstract class YggdrasilOutputStream implements Flushable, Closeable {
 			if (fields == null)
 				throw new YggdrasilException("The serialize() method of " + c + " returned null");
 		} else {
-			fields = new Fields(o, yggdrasil);
+			writePlannedObject(o, SerializationPlan.get(c));
+			if (ref < 0)
+				writtenObjects.put(o, ~ref);
+			return;
 		}
 		if (fields.size() > Short.MAX_VALUE)
 			throw new YggdrasilException("Class " + c.getCanonicalName() + " has too many fields (" + fields.size() + ")");
@@ -209,11 +212,44 @@ public abstract class YggdrasilOutputStream implements Flushable, Closeable {
 			writtenObjects.put(o, ~ref);
 	}
 	
+	/**
+	 * Writes an object that has neither a serializer nor a custom serialize() method directly from its fields, without creating a {@link Fields} object.
+	 */
+	private final void writePlannedObject(final Object o, final SerializationPlan plan) throws IOException {
+		final Class<?> c = o.getClass();
+		assert c != null;
+		if (plan.fields.length > Short.MAX_VALUE)
+			throw new YggdrasilException("Class " + c.getCanonicalName() + " has too many fields (" + plan.fields.length + ")");
+		
+		writeTag(T_OBJECT);
+		writeObjectType(yggdrasil.getID(c));
+		writeNumFields((short) plan.fields.length);
+		for (final SerializationPlan.PlannedField f : plan.fields) {
+			writeFieldID(f.id);
+			final Object value = f.get(o);
+			if (f.isPrimitive) {
+				assert value != null;
+				writePrimitive(value);
+			} else {
+				writeObject(value);
+			}
+		}
+		writeObjectEnd();
+	}
+	
 	// any Objects
 	
 	private int nextObjectID = 0;
 	private final IdentityHashMap<Object, Integer> writtenObjects = new IdentityHashMap<>();
 	
+	/**
+	 * Forgets all written objects, so that later references to them are written as new objects.
+	 */
+	final void clearWrittenObjects() {
+		nextObjectID = 0;
+		writtenObjects.clear();
+	}
+	
 	public final void writeObject(final @Nullable Object o) throws IOException {
 		if (o == null) {
 			writeNull();
@@ -0,0 +1,72 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.effects;
+
+import static org.easymock.EasyMock.anyString;
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.expectLastCall;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+
+import java.util.Collections;
+
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.junit.Test;
+
+import ch.njol.skript.lang.Expression;
+import ch.njol.skript.lang.VariableString;
+import ch.njol.skript.util.chat.ChatMessages;
+import ch.njol.util.Kleenean;
+
+@SuppressWarnings("null")
+public class EffMessageTest {
+	
+	/**
+	 * A formatted message sent to players and the console is evaluated once, and the console gets the same text as the players.
+	 */
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testMixedReceivers() {
+		final Event e = createMock(Event.class);
+		final VariableString message = createMock(VariableString.class);
+		expect(message.getMessageComponents(e)).andReturn(Collections.singletonList(ChatMessages.plainText("hello")));
+		
+		final Player.Spigot spigot = createNiceMock(Player.Spigot.class);
+		final Player player = createMock(Player.class);
+		expect(player.spigot()).andReturn(spigot).times(2);
+		final CommandSender console = createMock(CommandSender.class);
+		console.sendMessage(anyString());
+		expectLastCall();
+		
+		final Expression<CommandSender> recipients = createMock(Expression.class);
+		expect(recipients.getArray(e)).andReturn(new CommandSender[] {player, console, player});
+		replay(e, message, spigot, player, console, recipients);
+		
+		final EffMessage effect = new EffMessage();
+		effect.init(new Expression<?>[] {message, recipients}, 0, Kleenean.FALSE, null);
+		effect.execute(e);
+		verify(message, player, console, recipients);
+	}
+	
+}
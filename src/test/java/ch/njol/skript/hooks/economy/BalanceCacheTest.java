@@ -0,0 +1,179 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.hooks.economy;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+
+import org.bukkit.OfflinePlayer;
+import org.junit.Before;
+import org.junit.Test;
+
+@SuppressWarnings("null")
+public class BalanceCacheTest {
+	
+	/**
+	 * An economy that keeps balances in memory and doesn't allow negative balances.
+	 */
+	private static class MemoryStore implements BalanceCache.Store {
+		
+		final Map<UUID, Double> balances = new HashMap<>();
+		int reads = 0, writes = 0;
+		
+		@Override
+		public double getBalance(final OfflinePlayer p) {
+			reads++;
+			return balances.getOrDefault(p.getUniqueId(), 0.0);
+		}
+		
+		@Override
+		public boolean deposit(final OfflinePlayer p, final double amount) {
+			writes++;
+			balances.put(p.getUniqueId(), getBalance(p) + amount);
+			return true;
+		}
+		
+		@Override
+		public boolean withdraw(final OfflinePlayer p, final double amount) {
+			writes++;
+			final double balance = getBalance(p);
+			if (balance < amount)
+				return false;
+			balances.put(p.getUniqueId(), balance - amount);
+			return true;
+		}
+	}
+	
+	private MemoryStore store;
+	
+	/**
+	 * Write tasks, only run when the test says so.
+	 */
+	private Queue<Runnable> tasks;
+	
+	private BalanceCache cache;
+	private OfflinePlayer player;
+	
+	@Before
+	public void before() {
+		store = new MemoryStore();
+		tasks = new ArrayDeque<>();
+		cache = new BalanceCache(store, tasks::add);
+		player = createMock(OfflinePlayer.class);
+		expect(player.getUniqueId()).andReturn(UUID.randomUUID()).anyTimes();
+		replay(player);
+		store.balances.put(player.getUniqueId(), 100.0);
+	}
+	
+	private double balance(final long now) {
+		return cache.getBalance(player, now, 1000);
+	}
+	
+	private double stored() {
+		return store.balances.get(player.getUniqueId());
+	}
+	
+	private void runTasks() {
+		Runnable task;
+		while ((task = tasks.poll()) != null)
+			task.run();
+	}
+	
+	@Test
+	public void testReadThrough() {
+		assertEquals(100, balance(0), 0);
+		store.balances.put(player.getUniqueId(), 50.0);
+		assertEquals(100, balance(999), 0);
+		assertEquals(1, store.reads);
+		assertEquals(50, balance(1000), 0);
+		
+		store.balances.put(player.getUniqueId(), 70.0);
+		cache.invalidate(player);
+		assertEquals(70, balance(1001), 0);
+	}
+	
+	@Test
+	public void testWriteBehind() {
+		balance(0);
+		cache.add(player, 5);
+		cache.add(player, 5);
+		cache.add(player, -3);
+		assertEquals(107, balance(0), 0);
+		assertEquals(100, stored(), 0);
+		assertEquals(1, tasks.size());
+		
+		runTasks();
+		assertEquals(107, stored(), 0);
+		assertEquals(1, store.writes);
+		assertEquals(107, balance(0), 0);
+	}
+	
+	@Test
+	public void testInvalidateWithPendingChanges() {
+		cache.add(player, 20);
+		cache.invalidate(player);
+		assertEquals(120, balance(0), 0);
+		runTasks();
+		assertEquals(120, stored(), 0);
+		assertEquals(120, balance(0), 0);
+	}
+	
+	@Test
+	public void testFailedWithdrawal() {
+		balance(0);
+		cache.add(player, -500);
+		assertEquals(-400, balance(0), 0);
+		runTasks();
+		assertEquals(100, stored(), 0);
+		assertEquals(100, balance(0), 0);
+	}
+	
+	@Test
+	public void testSetAfterExternalChange() {
+		balance(0);
+		cache.add(player, 5);
+		store.balances.put(player.getUniqueId(), 300.0); // Changed by another plugin while cached
+		cache.set(player, 0, 0);
+		assertEquals(0, stored(), 0);
+		assertEquals(0, balance(0), 0);
+		runTasks(); // The dropped change must not be written afterwards
+		assertEquals(0, stored(), 0);
+	}
+	
+	@Test
+	public void testRelease() {
+		cache.add(player, 10);
+		cache.release(player);
+		runTasks();
+		assertEquals(110, stored(), 0);
+		final int reads = store.reads;
+		assertEquals(110, balance(0), 0);
+		assertEquals(reads + 1, store.reads);
+	}
+	
+}
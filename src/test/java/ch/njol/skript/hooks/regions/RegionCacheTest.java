@@ -0,0 +1,148 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.hooks.regions;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.UUID;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.junit.Before;
+import org.junit.Test;
+
+@SuppressWarnings("null")
+public class RegionCacheTest {
+	
+	/**
+	 * A regions plugin with one region from 0,0,0 to 9,9,9 where only the owner can build, counting how often it is asked.
+	 */
+	private static class StubPlugin {
+		
+		final UUID owner;
+		int lookups = 0;
+		
+		StubPlugin(final UUID owner) {
+			this.owner = owner;
+		}
+		
+		boolean contains(final Location l) {
+			return l.getBlockX() >= 0 && l.getBlockX() < 10 && l.getBlockY() >= 0 && l.getBlockY() < 10 && l.getBlockZ() >= 0 && l.getBlockZ() < 10;
+		}
+		
+		Collection<String> getRegionsAt(final Location l) {
+			lookups++;
+			return contains(l) ? Arrays.asList("region") : Collections.<String>emptyList();
+		}
+		
+		boolean canBuild(final Player p, final Location l) {
+			lookups++;
+			return !contains(l) || p.getUniqueId().equals(owner);
+		}
+	}
+	
+	private World world, otherWorld;
+	private Player owner, guest;
+	private StubPlugin plugin;
+	private RegionCache<String> cache;
+	
+	@Before
+	public void before() {
+		world = createMock(World.class);
+		otherWorld = createMock(World.class);
+		replay(world, otherWorld);
+		owner = player(UUID.randomUUID());
+		guest = player(UUID.randomUUID());
+		plugin = new StubPlugin(owner.getUniqueId());
+		cache = new RegionCache<>();
+	}
+	
+	private static Player player(final UUID id) {
+		final Player p = createMock(Player.class);
+		expect(p.getUniqueId()).andReturn(id).anyTimes();
+		replay(p);
+		return p;
+	}
+	
+	private Collection<? extends String> regionsAt(final World w, final double x, final double y, final double z, final long now) {
+		return cache.getRegionsAt(new Location(w, x, y, z), plugin::getRegionsAt, now, 1000);
+	}
+	
+	@Test
+	public void testRegions() {
+		assertEquals(Arrays.asList("region"), regionsAt(world, 1.5, 2, 3.7, 0));
+		assertEquals(Arrays.asList("region"), regionsAt(world, 1.1, 2.9, 3.2, 0)); // Same block
+		assertEquals(1, plugin.lookups);
+		
+		assertTrue(regionsAt(world, -0.5, 2, 3, 0).isEmpty());
+		assertTrue(regionsAt(world, 1, 2, 16, 0).isEmpty()); // Another chunk
+		regionsAt(otherWorld, 1, 2, 3, 0); // Same block in another world
+		assertEquals(4, plugin.lookups);
+		
+		assertEquals(1, cache.getHits());
+		assertEquals(4, cache.getMisses());
+	}
+	
+	@Test
+	public void testExpiry() {
+		regionsAt(world, 1, 2, 3, 0);
+		regionsAt(world, 1, 2, 3, 999);
+		assertEquals(1, plugin.lookups);
+		regionsAt(world, 1, 2, 3, 1000);
+		assertEquals(2, plugin.lookups);
+		
+		cache.clear();
+		regionsAt(world, 1, 2, 3, 1000);
+		assertEquals(3, plugin.lookups);
+	}
+	
+	@Test
+	public void testNoLifetime() {
+		final Location l = new Location(world, 1, 2, 3);
+		cache.getRegionsAt(l, plugin::getRegionsAt, 0, 0);
+		cache.getRegionsAt(l, plugin::getRegionsAt, Long.MAX_VALUE - 1, 0); // Kept until cleared
+		assertEquals(1, plugin.lookups);
+		
+		cache.clear();
+		cache.getRegionsAt(l, plugin::getRegionsAt, 0, 0);
+		assertEquals(2, plugin.lookups);
+	}
+	
+	@Test
+	public void testCanBuild() {
+		final Location l = new Location(world, 5, 5, 5);
+		assertTrue(cache.canBuild(owner, l, plugin::canBuild, 0, 1000));
+		assertFalse(cache.canBuild(guest, l, plugin::canBuild, 0, 1000));
+		assertTrue(cache.canBuild(owner, l, plugin::canBuild, 0, 1000));
+		assertFalse(cache.canBuild(guest, l, plugin::canBuild, 0, 1000));
+		assertTrue(cache.canBuild(guest, new Location(world, 50, 5, 5), plugin::canBuild, 0, 1000));
+		assertEquals(3, plugin.lookups);
+	}
+	
+}
@@ -0,0 +1,100 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.lang;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import ch.njol.skript.lang.SkriptParser.MalformedPatternException;
+
+@SuppressWarnings("null")
+public class CompiledPatternTest {
+
+	@Test
+	public void testCache() {
+		assertSame(CompiledPattern.get("[the] test"), CompiledPattern.get("[the] test"));
+	}
+
+	@Test
+	public void testBrackets() {
+		final CompiledPattern p = CompiledPattern.get("[the] (a|b [c]) d");
+		assertEquals(5, p.jump(0));
+		assertArrayEquals(new int[] {7, 9}, p.alternatives(6));
+		assertEquals(14, p.jump(8));
+		assertEquals(14, p.jump(11));
+	}
+
+	@Test
+	public void testMarks() {
+		final CompiledPattern p = CompiledPattern.get("(1¦a|2¦b|c|-3¦d)");
+		assertArrayEquals(new int[] {3, 7, 9, 14}, p.alternatives(0));
+		assertArrayEquals(new int[] {1, 2, 0, -3}, p.marks(0));
+	}
+
+	@Test
+	public void testExpressions() {
+		final CompiledPattern p = CompiledPattern.get("give %itemtypes% to %-players% <\\d+>");
+		assertEquals(2, p.exprCount);
+		assertArrayEquals(new String[] {"itemtypes", "-players"}, p.exprNames);
+		assertEquals("itemtypes", p.name(5));
+		assertEquals(15, p.jump(5));
+		assertEquals(0, p.exprIndex(5));
+		assertEquals(1, p.exprIndex(20));
+		assertEquals("\\d+", p.regex(31).pattern());
+	}
+
+	@Test
+	public void testLeadingLiterals() {
+		assertArrayEquals(new String[] {"the", "location", "position"}, CompiledPattern.get("[the] (location|position) of %entity%").leadingLiterals);
+		assertArrayEquals(new String[] {"gives", "give"}, CompiledPattern.get("give[s] %itemtypes% to %players%").leadingLiterals);
+		assertArrayEquals(new String[] {"a", "b"}, CompiledPattern.get("(1¦a|2¦b)").leadingLiterals);
+		assertNull(CompiledPattern.get("%entity%'s location").leadingLiterals);
+		assertNull(CompiledPattern.get("[the] %entity%'s location").leadingLiterals);
+		assertNull(CompiledPattern.get("<\\d+> ticks").leadingLiterals);
+		
+		final CompiledPattern p = CompiledPattern.get("[the] (location|position) of %entity%");
+		assertTrue(p.mayMatch("location of player"));
+		assertTrue(p.mayMatch("THE Position of player"));
+		assertFalse(p.mayMatch("player's location"));
+	}
+
+	@Test
+	public void testMalformed() {
+		// Compiling never fails, errors are thrown when parser reaches them
+		final CompiledPattern p = CompiledPattern.get("a (b|c %d");
+		assertArrayEquals(new int[] {3, 5}, p.alternatives(2));
+		try {
+			p.checkMalformed(2);
+			fail("unclosed group was accepted");
+		} catch (final MalformedPatternException e) {}
+		try {
+			p.jump(7);
+			fail("odd number of '%' was accepted");
+		} catch (final MalformedPatternException e) {}
+	}
+
+}
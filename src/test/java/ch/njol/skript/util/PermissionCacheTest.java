@@ -0,0 +1,111 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.util;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.UUID;
+
+import org.bukkit.entity.Player;
+import org.junit.Test;
+
+@SuppressWarnings("null")
+public class PermissionCacheTest {
+	
+	private static Player player() {
+		final Player p = createMock(Player.class);
+		expect(p.getUniqueId()).andReturn(UUID.randomUUID()).anyTimes();
+		return p;
+	}
+	
+	@Test
+	public void testCaching() {
+		final Player player = player(), other = player();
+		expect(player.hasPermission("skript.tree")).andReturn(true);
+		expect(player.hasPermission("skript.fly")).andReturn(false);
+		expect(other.hasPermission("skript.tree")).andReturn(false);
+		replay(player, other);
+		
+		final PermissionCache cache = new PermissionCache();
+		assertTrue(cache.hasPermission(player, "skript.tree", 0, 1000));
+		assertFalse(cache.hasPermission(player, "skript.fly", 0, 1000));
+		assertTrue(cache.hasPermission(player, "skript.tree", 500, 1000));
+		assertFalse(cache.hasPermission(player, "skript.fly", 500, 1000));
+		assertFalse(cache.hasPermission(other, "skript.tree", 500, 1000));
+		verify(player, other);
+		
+		assertEquals(2, cache.getHits());
+		assertEquals(3, cache.getMisses());
+		assertEquals(0.4, cache.getHitRate(), 0.0001);
+	}
+	
+	@Test
+	public void testExpiry() {
+		final Player player = player();
+		expect(player.hasPermission("skript.tree")).andReturn(true);
+		expect(player.hasPermission("skript.tree")).andReturn(false); // Removed by a permission plugin meanwhile
+		replay(player);
+		
+		final PermissionCache cache = new PermissionCache();
+		assertTrue(cache.hasPermission(player, "skript.tree", 0, 1000));
+		assertTrue(cache.hasPermission(player, "skript.tree", 999, 1000));
+		assertFalse(cache.hasPermission(player, "skript.tree", 1000, 1000));
+		verify(player);
+	}
+	
+	@Test
+	public void testInvalidate() {
+		final Player player = player();
+		expect(player.hasPermission("skript.fly")).andReturn(false);
+		expect(player.hasPermission("skript.fly")).andReturn(true);
+		replay(player);
+		
+		final PermissionCache cache = new PermissionCache();
+		assertFalse(cache.hasPermission(player, "skript.fly", 0, 1000));
+		cache.invalidate(player); // e.g. the player quit or changed worlds
+		assertTrue(cache.hasPermission(player, "skript.fly", 0, 1000));
+		verify(player);
+	}
+	
+	/**
+	 * Many checks of a few permissions, like a script checking permissions on every move, only reach the player once per permission.
+	 */
+	@Test
+	public void testRepeatedChecks() {
+		final String[] permissions = {"skript.tree", "skript.admin", "skript.fly", "skript.build.*", "skript.*"};
+		final Player player = player();
+		for (final String permission : permissions)
+			expect(player.hasPermission(permission)).andReturn(true);
+		replay(player);
+		
+		final PermissionCache cache = new PermissionCache();
+		for (int i = 0; i < 100000; i++)
+			cache.hasPermission(player, permissions[i % permissions.length], i / 1000, 1000);
+		verify(player);
+		assertTrue(cache.getHitRate() > 0.99);
+	}
+	
+}